@@ -0,0 +1,80 @@
+package dev.jcps;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for creating boards: mine placement on its own, adjacency counts on their own, and both
+ * together as done by {@link MineEngine#newGame(Game, long)}. The adjacency counts are computed both
+ * bit-parallel, as the engine does, and one cell at a time.
+ *
+ * @since 1.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    @Param({"beginner", "intermediate", "expert", "480x270x25920", "2000x2000x800000", "10000x10000x20000000"})
+    public String size;
+
+    private Game game;
+    private MineEngine engine;
+    private MineBoard board;
+    private final MineLayoutGenerator generator = new UniformLayoutGenerator();
+    private final SplittableRandom random = new SplittableRandom(1);
+    private long seed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.game = Simulator.parseGame(this.size);
+        this.engine = new MineEngine();
+        this.engine.newGame(this.game, 1);
+        this.board = this.engine.board();
+    }
+
+    /**
+     * Places the mines and computes the adjacency counts of a new board.
+     */
+    @Benchmark
+    public int newGame() {
+        this.engine.newGame(this.game, this.seed++);
+        return this.engine.hidden();
+    }
+
+    /**
+     * Places the mines only.
+     */
+    @Benchmark
+    public int[] placeMines() {
+        return this.generator.generate(this.game.width(), this.game.height(), this.game.mines(),
+                MineLayoutGenerator.NO_CELLS, this.random);
+    }
+
+    /**
+     * Recomputes the adjacency count of every tile, 64 tiles at a time.
+     */
+    @Benchmark
+    public MineBoard computeNumbers() {
+        this.board.computeNumbers();
+        return this.board;
+    }
+
+    /**
+     * Recomputes the adjacency count of every tile, one tile at a time.
+     */
+    @Benchmark
+    public MineBoard computeNumbersScalar() {
+        final MineBoard b = this.board;
+        for (int cell = 0; cell < b.size(); cell++) {
+            if (!b.isMine(cell)) {
+                b.setCount(cell, b.countMines(cell));
+            }
+        }
+        return b;
+    }
+}
@@ -0,0 +1,56 @@
+package dev.jcps;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for painting every tile of a board into an off-screen image.
+ *
+ * @since 1.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PaintBenchmark {
+    @Param({"beginner", "intermediate", "expert", "100x100x2000"})
+    public String size;
+
+    private JMine jmine;
+    private BufferedImage canvas;
+    private Graphics graphics;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final Image[] tiles = new Image[MineTile.NUM_IMAGES];
+        SpriteSheet.load(SpriteSheet.DEFAULT_NAME).sprites("tile", tiles);
+        JMine.tileAtlas = new TileAtlas(tiles, JMine.TILE_SIZE, JMine.TILE_SIZE, null);
+        final Game game = Simulator.parseGame(this.size);
+        this.jmine = new JMine();
+        this.jmine.newGame(game, 1);
+        this.jmine.reveal(game.width() / 2, game.height() / 2);
+        this.canvas = TileAtlas.createImage(JMine.getOffsetX() + game.width() * JMine.TILE_SIZE,
+                JMine.getOffsetY() + game.height() * JMine.TILE_SIZE, Transparency.OPAQUE);
+        this.graphics = this.canvas.getGraphics();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.graphics.dispose();
+    }
+
+    /**
+     * Paints every tile.
+     */
+    @Benchmark
+    public BufferedImage paintTiles() {
+        this.jmine.paintTiles(this.graphics, true);
+        return this.canvas;
+    }
+}
@@ -0,0 +1,147 @@
+package dev.jcps;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for playing moves: the first click, moving a mine away from the first click, a flood fill
+ * over the whole board and chording.
+ * <p>
+ * Each move changes the board, so a fresh board is set up before every invocation. That setup is not
+ * measured, but the per-invocation timing overhead makes the scores of the smallest boards less precise.
+ * </p>
+ *
+ * @since 1.1
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayBenchmark {
+    /**
+     * A new board of the benchmarked size. The setup methods of the states below run after the ones here.
+     */
+    @State(Scope.Thread)
+    public static class FreshBoard {
+        @Param({"beginner", "intermediate", "expert", "480x270x25920"})
+        public String size;
+
+        Game game;
+        final MineEngine engine = new MineEngine();
+        long seed;
+
+        @Setup(Level.Trial)
+        public void setUpGame() {
+            this.game = Simulator.parseGame(this.size);
+        }
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            this.engine.newGame(this.game, this.seed++);
+        }
+    }
+
+    /**
+     * A new board with the position of one of its mines, so that the first click has to move it.
+     */
+    @State(Scope.Thread)
+    public static class MineUnderCursor extends FreshBoard {
+        int x;
+        int y;
+
+        @Setup(Level.Invocation)
+        public void findMine() {
+            final MineBoard board = this.engine.board();
+            int cell = 0;
+            while (!board.isMine(cell)) {
+                cell++;
+            }
+            this.x = cell % board.width;
+            this.y = cell / board.width;
+        }
+    }
+
+    /**
+     * A board of the benchmarked size with a single mine, so that the first click reveals every other tile.
+     */
+    @State(Scope.Thread)
+    public static class EmptyBoard extends FreshBoard {
+        @Setup(Level.Trial)
+        public void removeMines() {
+            this.game = new Game(this.game.width(), this.game.height(), 1);
+        }
+    }
+
+    /**
+     * A board after a safe first click with every mine flagged, and the revealed numbered tiles to chord on.
+     */
+    @State(Scope.Thread)
+    public static class ChordReady extends FreshBoard {
+        final IntList numbered = new IntList();
+
+        @Setup(Level.Trial)
+        public void openSafely() {
+            this.engine.setSafeOpening(true);
+        }
+
+        @Setup(Level.Invocation)
+        public void flagMines() {
+            this.engine.reveal(this.game.width() / 2, this.game.height() / 2);
+            while (this.engine.state() != MineEngine.PLAYING) {
+                this.engine.newGame(this.game, this.seed++);
+                this.engine.reveal(this.game.width() / 2, this.game.height() / 2);
+            }
+            final MineBoard board = this.engine.board();
+            this.numbered.clear();
+            for (int cell = 0; cell < board.size(); cell++) {
+                if (board.isMine(cell)) {
+                    this.engine.cycleMark(cell % board.width, cell / board.width);
+                } else if (board.isRevealed(cell) && board.number(cell) > 0) {
+                    this.numbered.add(cell);
+                }
+            }
+        }
+    }
+
+    /**
+     * The first click on a new board, which may move a mine and usually opens a cascade.
+     */
+    @Benchmark
+    public int firstClick(final FreshBoard state) {
+        state.engine.reveal(state.game.width() / 2, state.game.height() / 2);
+        return state.engine.hidden();
+    }
+
+    /**
+     * A first click on a mine, which moves the mine before revealing the tile.
+     */
+    @Benchmark
+    public int relocateFirstClick(final MineUnderCursor state) {
+        state.engine.reveal(state.x, state.y);
+        return state.engine.hidden();
+    }
+
+    /**
+     * A first click that flood fills the whole board.
+     */
+    @Benchmark
+    public int floodFill(final EmptyBoard state) {
+        state.engine.reveal(0, 0);
+        return state.engine.hidden();
+    }
+
+    /**
+     * Chords on every numbered tile revealed by the first click.
+     */
+    @Benchmark
+    public int squareReveal(final ChordReady state) {
+        final MineBoard board = state.engine.board();
+        for (int i = 0; i < state.numbered.size(); i++) {
+            final int cell = state.numbered.get(i);
+            state.engine.squareReveal(cell % board.width, cell / board.width);
+        }
+        return state.engine.hidden();
+    }
+}
@@ -119,9 +119,9 @@ class CustomDialog extends Dialog implements ActionListener, WindowListener {
         this.cancelButton = new JButton("Cancel");
         this.cancelButton.addActionListener(this);
         this.cancelButton.setBackground(foreground);
-        this.widthField = new TextField(3);
-        this.heightField = new TextField(3);
-        this.minesField = new TextField(3);
+        this.widthField = new TextField(5);
+        this.heightField = new TextField(5);
+        this.minesField = new TextField(5);
         this.widthField.setText("10");
         this.heightField.setText("10");
         this.minesField.setText("10");
@@ -201,20 +201,21 @@ class CustomDialog extends Dialog implements ActionListener, WindowListener {
             new MessageBox(this.parentFrame, ERROR_STR, "Integer values please", 150);
             return;
         }
-        if (int3 >= int1 * int2) {
-            new MessageBox(this.parentFrame, ERROR_STR, "Impossible Game!", 150);
+        if (int1 > JMine.MAX_X || int1 < JMine.MIN_X) {
+            new MessageBox(this.parentFrame, ERROR_STR, "Choose width from " + JMine.MIN_X + " to " + JMine.MAX_X, 150);
             return;
         }
-        if (int1 > 30 || int1 < 8) {
-            new MessageBox(this.parentFrame, ERROR_STR, "Choose width from " + 8 + " to " + 30, 150);
+        if (int2 > JMine.MAX_Y || int2 < JMine.MIN_Y) {
+            new MessageBox(this.parentFrame, ERROR_STR, "Choose height from " + JMine.MIN_Y + " to " + JMine.MAX_Y, 150);
             return;
         }
-        if (int2 > 24 || int2 < 8) {
-            new MessageBox(this.parentFrame, ERROR_STR, "Choose height from " + 8 + " to " + 24, 150);
+        if (int3 >= int1 * int2) {
+            new MessageBox(this.parentFrame, ERROR_STR, "Impossible Game!", 150);
             return;
         }
-        if (int3 > JMine.MAX_MINES || int3 < 10) {
-            new MessageBox(this.parentFrame, ERROR_STR, "Choose mines from " + 10 + " to " + JMine.MAX_MINES, 150);
+        if (int3 < JMine.MIN_MINES) {
+            new MessageBox(this.parentFrame, ERROR_STR,
+                    "Choose mines from " + JMine.MIN_MINES + " to " + (int1 * int2 - 1), 150);
             return;
         }
         this.activated = true;
@@ -0,0 +1,158 @@
+package dev.jcps;
+
+/**
+ * Collects changed tiles into a small set of rectangles, in tile coordinates, so that only those parts
+ * of the minefield are repainted.
+ * <p>
+ * A tile touching or lying inside an existing rectangle grows that rectangle; any other tile starts a new
+ * one. Once there are more than {@link #MAX_RECTS} rectangles, the two whose union wastes the fewest tiles
+ * are merged. The rectangles are kept in fixed arrays, so adding tiles never allocates.
+ * </p>
+ *
+ * @since 1.1
+ */
+final class DirtyRegion {
+    /**
+     * The maximum number of rectangles kept.
+     */
+    static final int MAX_RECTS = 4;
+
+    private final int[] left = new int[MAX_RECTS + 1];
+    private final int[] top = new int[MAX_RECTS + 1];
+    private final int[] right = new int[MAX_RECTS + 1];
+    private final int[] bottom = new int[MAX_RECTS + 1];
+
+    /**
+     * The number of rectangles in use.
+     */
+    private int count;
+
+    /**
+     * Adds a tile to the region.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     */
+    void add(final int x, final int y) {
+        for (int i = 0; i < this.count; i++) {
+            if (x >= this.left[i] - 1 && x <= this.right[i] + 1 && y >= this.top[i] - 1 && y <= this.bottom[i] + 1) {
+                this.left[i] = Math.min(this.left[i], x);
+                this.top[i] = Math.min(this.top[i], y);
+                this.right[i] = Math.max(this.right[i], x);
+                this.bottom[i] = Math.max(this.bottom[i], y);
+                return;
+            }
+        }
+        this.left[this.count] = x;
+        this.top[this.count] = y;
+        this.right[this.count] = x;
+        this.bottom[this.count] = y;
+        if (++this.count > MAX_RECTS) {
+            this.mergeCheapest();
+        }
+    }
+
+    /**
+     * Replaces the region by one rectangle covering a whole board.
+     *
+     * @param width  the width of the board in tiles
+     * @param height the height of the board in tiles
+     */
+    void fill(final int width, final int height) {
+        this.left[0] = 0;
+        this.top[0] = 0;
+        this.right[0] = width - 1;
+        this.bottom[0] = height - 1;
+        this.count = 1;
+    }
+
+    /**
+     * Merges the pair of rectangles whose bounding box adds the fewest tiles not in either rectangle.
+     */
+    private void mergeCheapest() {
+        int bestA = 0;
+        int bestB = 1;
+        long bestWaste = Long.MAX_VALUE;
+        for (int a = 0; a < this.count; a++) {
+            for (int b = a + 1; b < this.count; b++) {
+                final long union = (long) (Math.max(this.right[a], this.right[b]) - Math.min(this.left[a], this.left[b]) + 1) *
+                        (Math.max(this.bottom[a], this.bottom[b]) - Math.min(this.top[a], this.top[b]) + 1);
+                final long waste = union - this.area(a) - this.area(b);
+                if (waste < bestWaste) {
+                    bestWaste = waste;
+                    bestA = a;
+                    bestB = b;
+                }
+            }
+        }
+        this.left[bestA] = Math.min(this.left[bestA], this.left[bestB]);
+        this.top[bestA] = Math.min(this.top[bestA], this.top[bestB]);
+        this.right[bestA] = Math.max(this.right[bestA], this.right[bestB]);
+        this.bottom[bestA] = Math.max(this.bottom[bestA], this.bottom[bestB]);
+        --this.count;
+        this.left[bestB] = this.left[this.count];
+        this.top[bestB] = this.top[this.count];
+        this.right[bestB] = this.right[this.count];
+        this.bottom[bestB] = this.bottom[this.count];
+    }
+
+    private long area(final int i) {
+        return (long) (this.right[i] - this.left[i] + 1) * (this.bottom[i] - this.top[i] + 1);
+    }
+
+    /**
+     * Returns the number of rectangles.
+     *
+     * @return the number of rectangles
+     */
+    int size() {
+        return this.count;
+    }
+
+    /**
+     * Returns the x-coordinate of the leftmost tile of a rectangle.
+     *
+     * @param i the rectangle
+     * @return the leftmost tile column
+     */
+    int x(final int i) {
+        return this.left[i];
+    }
+
+    /**
+     * Returns the y-coordinate of the topmost tile of a rectangle.
+     *
+     * @param i the rectangle
+     * @return the topmost tile row
+     */
+    int y(final int i) {
+        return this.top[i];
+    }
+
+    /**
+     * Returns the width of a rectangle.
+     *
+     * @param i the rectangle
+     * @return the width in tiles
+     */
+    int width(final int i) {
+        return this.right[i] - this.left[i] + 1;
+    }
+
+    /**
+     * Returns the height of a rectangle.
+     *
+     * @param i the rectangle
+     * @return the height in tiles
+     */
+    int height(final int i) {
+        return this.bottom[i] - this.top[i] + 1;
+    }
+
+    /**
+     * Removes all rectangles.
+     */
+    void clear() {
+        this.count = 0;
+    }
+}
@@ -12,6 +12,14 @@ package dev.jcps;
  * @since 1.0
  */
 public class Game {
+    /**
+     * The most tiles a board can have without being huge. Huge boards are laid out in the background, and
+     * their layouts are neither cached nor kept ready in advance.
+     *
+     * @since 1.1
+     */
+    public static final int HUGE_TILES = 1 << 16;
+
     /**
      * The width of the game.
      */
@@ -64,4 +72,14 @@ public class Game {
     public int mines() {
         return this.mines;
     }
+
+    /**
+     * Checks whether the board has more than {@link #HUGE_TILES} tiles.
+     *
+     * @return {@code true} for a huge board
+     * @since 1.1
+     */
+    public boolean isHuge() {
+        return (long) this.width * this.height > HUGE_TILES;
+    }
 }
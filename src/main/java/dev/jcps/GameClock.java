@@ -0,0 +1,123 @@
+package dev.jcps;
+
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.Timer;
+import java.util.function.IntConsumer;
+
+/**
+ * Measures the time of a game in milliseconds with {@link System#nanoTime()}, which is not affected by
+ * changes of the system clock.
+ * <p>
+ * While the clock runs, a one-shot Swing timer is set to fire when the shown second next changes, and the
+ * listener is told the new second on the event dispatch thread. No timer is pending while the clock is
+ * stopped, so an idle window never wakes up.
+ * </p>
+ *
+ * @since 1.1
+ */
+final class GameClock {
+    /**
+     * Receives the elapsed whole seconds each time they change.
+     */
+    private final IntConsumer onSecond;
+    /**
+     * Fires when the shown second is due to change.
+     */
+    private final Timer ticker;
+    /**
+     * The {@link System#nanoTime()} the clock was started.
+     */
+    private long startNanos;
+    /**
+     * The elapsed milliseconds when the clock was stopped.
+     */
+    private long stopped;
+    /**
+     * The seconds last given to the listener.
+     */
+    private int shown;
+    /**
+     * Whether the clock is running.
+     */
+    private boolean running;
+
+    /**
+     * Constructs a stopped clock.
+     *
+     * @param onSecond receives the elapsed whole seconds each time they change while the clock runs
+     */
+    GameClock(final @NotNull IntConsumer onSecond) {
+        this.onSecond = onSecond;
+        this.ticker = new Timer(0, e -> this.tick());
+        this.ticker.setRepeats(false);
+    }
+
+    /**
+     * Starts the clock from zero.
+     */
+    void start() {
+        this.startNanos = System.nanoTime();
+        this.shown = 0;
+        this.running = true;
+        this.schedule(0L);
+    }
+
+    /**
+     * Stops the clock, keeping the elapsed time.
+     */
+    void stop() {
+        if (this.running) {
+            this.stopped = this.millis();
+            this.running = false;
+            this.ticker.stop();
+        }
+    }
+
+    /**
+     * Stops the clock and sets the elapsed time back to zero.
+     */
+    void reset() {
+        this.stop();
+        this.stopped = 0L;
+    }
+
+    /**
+     * Returns whether the clock is running.
+     *
+     * @return {@code true} between {@link #start()} and {@link #stop()}
+     */
+    boolean isRunning() {
+        return this.running;
+    }
+
+    /**
+     * Returns the elapsed time.
+     *
+     * @return the milliseconds since the clock was started, up to when it was stopped
+     */
+    long millis() {
+        return this.running ? (System.nanoTime() - this.startNanos) / 1_000_000L : this.stopped;
+    }
+
+    private void tick() {
+        if (!this.running) {
+            return;
+        }
+        final long millis = this.millis();
+        final int seconds = (int) Math.min(millis / 1000L, Integer.MAX_VALUE);
+        if (seconds != this.shown) {
+            this.shown = seconds;
+            this.onSecond.accept(seconds);
+        }
+        this.schedule(millis);
+    }
+
+    /**
+     * Sets the timer to fire when the next whole second is reached.
+     */
+    private void schedule(final long millis) {
+        this.ticker.setInitialDelay((int) (1000L - millis % 1000L));
+        this.ticker.restart();
+    }
+}
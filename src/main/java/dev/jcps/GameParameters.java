@@ -25,6 +25,12 @@ public class GameParameters {
     public static final String FG_COLOR = "fgColor";
     public static final String BG_COLOR = "bgColor";
     public static final String IMAGE_PATH = "image_path";
+    public static final String SAFE_OPENING = "safe_opening";
+    public static final String NO_GUESS = "no_guess";
+    public static final String RANDOM = "random";
+    public static final String SEED = "seed";
+    public static final String SPRITE_SHEET = "sprite_sheet";
+    public static final String SCORE_DIR = "score_dir";
     /**
      * A HashMap that stores key-value pairs representing various game parameters.
      * The keys are String identifiers for the parameters, and the values are their corresponding settings.
@@ -42,6 +48,12 @@ public class GameParameters {
         paramMap.put(FG_COLOR, "#000000");
         paramMap.put(BG_COLOR, "#FFFFFF");
         paramMap.put(IMAGE_PATH, "images");
+        paramMap.put(SAFE_OPENING, "false"); // place mines after the first click
+        paramMap.put(NO_GUESS, "false"); // only deal boards that can be won without guessing
+        paramMap.put(RANDOM, MineEngine.DEFAULT_RANDOM); // any java.util.random algorithm name
+        paramMap.put(SEED, null); // a fixed 64-bit board seed, or null for a new seed every game
+        paramMap.put(SPRITE_SHEET, SpriteSheet.DEFAULT_NAME); // packed skin, or empty for the separate GIFs
+        paramMap.put(SCORE_DIR, null); // where scores are saved, or null for .jmine in the home directory
 
     }
 
@@ -58,6 +70,12 @@ public class GameParameters {
         paramMap.put(FG_COLOR, hashMap.get(FG_COLOR));
         paramMap.put(BG_COLOR, hashMap.get(BG_COLOR));
         paramMap.put(IMAGE_PATH, hashMap.get(IMAGE_PATH));
+        paramMap.put(SAFE_OPENING, hashMap.get(SAFE_OPENING));
+        paramMap.put(NO_GUESS, hashMap.get(NO_GUESS));
+        paramMap.put(RANDOM, hashMap.get(RANDOM));
+        paramMap.put(SEED, hashMap.get(SEED));
+        paramMap.put(SPRITE_SHEET, hashMap.get(SPRITE_SHEET));
+        paramMap.put(SCORE_DIR, hashMap.get(SCORE_DIR));
 
     }
 
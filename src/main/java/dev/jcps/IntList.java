@@ -0,0 +1,125 @@
+package dev.jcps;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of primitive {@code int} values, used for cell numbers on hot paths where boxing into
+ * an {@code ArrayList<Integer>} would allocate for every element.
+ * <p>
+ * The list can also be used as a stack through {@link #add(int)} and {@link #pop()}.
+ * </p>
+ *
+ * @since 1.1
+ */
+final class IntList {
+    /**
+     * The backing array; only the first {@link #size} elements are in use.
+     */
+    private int[] data;
+
+    /**
+     * The number of elements in the list.
+     */
+    private int size;
+
+    /**
+     * Constructs an empty list with a small initial capacity.
+     */
+    IntList() {
+        this(16);
+    }
+
+    /**
+     * Constructs an empty list.
+     *
+     * @param capacity the initial capacity
+     */
+    IntList(final int capacity) {
+        this.data = new int[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Appends a value, growing the backing array if needed.
+     *
+     * @param value the value to add
+     */
+    void add(final int value) {
+        if (this.size == this.data.length) {
+            this.data = Arrays.copyOf(this.data, this.size << 1);
+        }
+        this.data[this.size++] = value;
+    }
+
+    /**
+     * Removes and returns the last value.
+     *
+     * @return the last value
+     */
+    int pop() {
+        return this.data[--this.size];
+    }
+
+    /**
+     * Returns the value at a position.
+     *
+     * @param i the position
+     * @return the value
+     */
+    int get(final int i) {
+        return this.data[i];
+    }
+
+    /**
+     * Replaces the value at a position.
+     *
+     * @param i     the position
+     * @param value the new value
+     */
+    void set(final int i, final int value) {
+        this.data[i] = value;
+    }
+
+    /**
+     * Returns the number of values in the list.
+     *
+     * @return the size
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Checks whether the list is empty.
+     *
+     * @return {@code true} if there are no values
+     */
+    boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Drops the values past a given size.
+     *
+     * @param size the new size, at most the current size
+     */
+    void truncate(final int size) {
+        this.size = size;
+    }
+
+    /**
+     * Removes all values, keeping the backing array.
+     */
+    void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * Returns the backing array. Only the first {@link #size()} elements are valid, and the array is
+     * replaced when the list grows.
+     *
+     * @return the backing array
+     */
+    int[] array() {
+        return this.data;
+    }
+}
@@ -13,18 +13,21 @@ import java.awt.*;
 import java.awt.event.*;
 import java.awt.image.BufferedImage;
 import java.io.File;
-import java.util.ArrayList;
-import java.util.Date;
-import java.util.Random;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 /**
  * JMine is a class representing a Minesweeper game panel. It extends JPanel and implements
  * MouseListener, MouseMotionListener, KeyListener, Runnable, and JavaAppletAdapter interfaces
- * to handle user interactions, game logic, and rendering.
+ * to handle user interactions and rendering.
  * <p>
  * This class serves as the main component for displaying and interacting with the Minesweeper game.
- * It handles mouse and keyboard input events, updates game state based on user interactions,
- * and renders the game graphics.
+ * It handles mouse and keyboard input events, forwards them to a {@link MineEngine} which holds the
+ * board and the game rules, and renders the tiles the engine reports as changed.
  * <p>
  * To use JMine, simply instantiate an object of this class and add it to a Swing container.
  * You can then interact with the Minesweeper game through mouse clicks and keyboard input.
@@ -38,7 +41,8 @@ import java.util.Random;
  * frame.setVisible(true);
  * }</pre>
  */
-public class JMine extends JPanel implements MouseListener, MouseMotionListener, KeyListener, JavaAppletAdapter {
+public class JMine extends JPanel implements MouseListener, MouseMotionListener, KeyListener, JavaAppletAdapter,
+        MineEngine.Listener {
     /**
      * MacOS has an odd glitch. This is a hack to workaround it.
      */
@@ -59,20 +63,20 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
     /**
      * maximum minefield size along the X-axis
      */
-    public static final int MAX_X = 30;
+    public static final int MAX_X = 10_000;
     /**
      * maximum minefield size along the Y-axis
      */
-    public static final int MAX_Y = 24;
+    public static final int MAX_Y = 10_000;
 
     /**
      * minimum number of mines
      */
     public static final int MIN_MINES = 10;
     /**
-     * maximum number of mines
+     * maximum number of mines; a board always keeps at least one tile free of mines
      */
-    public static final int MAX_MINES = 667;
+    public static final int MAX_MINES = MAX_X * MAX_Y - 1;
     /**
      * Flag icon width
      */
@@ -93,6 +97,11 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
      * time face height
      */
     public static final int TIME_HEIGHT = 23;
+    /**
+     * The most zero tiles whose neighbours are opened per event while a cascade opens, so that opening a
+     * huge region keeps the window responsive.
+     */
+    private static final int REVEAL_SLICE = 1 << 16;
 
     /**
      * Represents the game difficulty level: Beginner.
@@ -150,7 +159,27 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
      * The frame for the JMine game.
      */
     static JFrame frame;
-    private final Random rand;
+
+    /**
+     * Array storing images for different tile states.
+     */
+    static final Image[] tileImages = new Image[MineTile.NUM_IMAGES];
+
+    /**
+     * Value of {@link System#nanoTime()} when {@link #init()} started, or 0 once the first frame has been
+     * painted and the startup time reported.
+     */
+    private transient long initStarted;
+
+    /**
+     * Translucent hint colors from green for a safe tile to red for a certain mine, in steps of ten percent.
+     */
+    private static final Color[] HINT_COLORS = new Color[11];
+
+    /**
+     * The tile images rendered into one sprite sheet, or null until the images are loaded.
+     */
+    static TileAtlas tileAtlas;
 
     static {
         defaultBackground = Color.decode("#434434");
@@ -163,9 +192,12 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
         JMine.setFaceY(10);
         JMine.setTimeX(JMine.getFaceX() + 26 + 3);
         JMine.setTimeY(10);
+        for (int i = 0; i < HINT_COLORS.length; i++) {
+            HINT_COLORS[i] = new Color(255 * i / 10, 255 * (10 - i) / 10, 0, 96);
+        }
         BEGINNER = new Game(MIN_X, MIN_Y, MIN_MINES);
         INTERMEDIATE = new Game(16, 16, 40);
-        EXPERT = new Game(MAX_X, MAX_Y, 99);
+        EXPERT = new Game(30, 24, 99);
         CUSTOM = new Game(10, 10, MIN_MINES);
     }
 
@@ -173,10 +205,6 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
      * Stores parameters related to the game configuration.
      */
     public transient GameParameters gameParams;
-    /**
-     * Timer used to update the game state.
-     */
-    Timer timer;
     /**
      * The background color of the game.
      */
@@ -223,14 +251,34 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
     private boolean clearScreen;
 
     /**
-     * Stores the mine tiles grid for the game.
+     * The engine holding the board and the game rules.
+     */
+    private final transient MineEngine engine;
+
+    /**
+     * Mine probabilities shown over the hidden tiles, or null while hints are off.
+     */
+    private transient MineProbability hints;
+
+    /**
+     * Set when the board changed since the hint probabilities were computed.
+     */
+    private boolean hintsStale;
+
+    /**
+     * Set while the rest of a cascade is queued to be opened on the event dispatch thread.
      */
-    private transient MineTile[][] tiles;
+    private boolean revealPending;
 
     /**
-     * Vector storing mine tiles to be painted.
+     * Lays out the board of the next huge game in the background, or null when no board is being laid out.
      */
-    private transient ArrayList<MineTile> paintMe;
+    private transient SwingWorker<LayoutPool.Ready, Void> layingOut;
+
+    /**
+     * Rectangles of tiles changed since the last repaint.
+     */
+    private final transient DirtyRegion dirtyTiles = new DirtyRegion();
 
     /**
      * Array of images representing different faces for the game.
@@ -257,11 +305,6 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
      */
     private boolean faceChanged;
 
-    /**
-     * The number of hidden tiles in the game.
-     */
-    private int hidden;
-
     /**
      * The number of flagged tiles in the game.
      */
@@ -282,11 +325,6 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
      */
     private int time;
 
-    /**
-     * The total number of mines in the game.
-     */
-    private int mines;
-
     /**
      * Indicates whether all tiles need to be repainted.
      */
@@ -307,20 +345,60 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
      */
     private transient Game difficulty;
 
+    /**
+     * The seed every new board is generated from, or {@code null} to use a new seed for each game.
+     */
+    private Long boardSeed;
+
     /**
      * Dialog for configuring game options.
      */
     private MineOptionsDialog mod;
 
     /**
-     * The start time of the game.
+     * Name under which games are recorded: the name last entered for a best time.
      */
-    private long startTime;
+    private transient String playerName = "Unknown";
 
     /**
-     * Indicates whether all game activities should stop.
+     * Records the input events of the game being played.
      */
-    private boolean stopAll;
+    private final transient ReplayRecorder recorder = new ReplayRecorder();
+
+    /**
+     * The replay being shown, or {@code null} while the game is played.
+     */
+    private transient Replay replay;
+
+    /**
+     * Shows the events of {@link #replay} as they become due.
+     */
+    private transient Timer playback;
+
+    /**
+     * The next event of {@link #replay} to show.
+     */
+    private int replayEvent;
+
+    /**
+     * The {@link System#nanoTime()} the replay started.
+     */
+    private long replayStarted;
+
+    /**
+     * The cell shown pressed by the last replayed press, or -1.
+     */
+    private int replayPressed;
+
+    /**
+     * The game settings changed to show the replay, restored when it ends.
+     */
+    private transient Settings replaySettings;
+
+    /**
+     * Measures the time of the game being played and updates the shown time.
+     */
+    private final transient GameClock clock = new GameClock(this::showTime);
 
     /**
      * Graphics context for the off-screen buffer.
@@ -336,7 +414,8 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
      * Constructs a new JMine object with default settings.
      */
     public JMine() {
-        this.rand = new Random();
+        this.engine = new MineEngine();
+        this.engine.setListener(this);
         this.backgroundColor = JMine.defaultBackground;
         this.foregroundColor = JMine.DEFAULT_FOREGROUND;
         this.mButton1 = false;
@@ -348,25 +427,29 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
         this.face = Smile.SMILE_STATE;
         this.oldFace = Smile.SMILE_STATE;
         this.faceChanged = true;
-        this.hidden = -1;
-        this.mines = -1;
         this.paintAll = true;
         this.flagsChanged = false;
         this.timeChanged = false;
         this.difficulty = JMine.BEGINNER;
-        this.stopAll = true;
     }
 
     /**
      * The entry point for launching the JMine game.
      * <p>
      * This method creates an instance of the JMine class, initializes a JFrame for the game window, and sets up the game environment.
-     * It adds the JMine instance to the center of the JFrame and sets its layout to BorderLayout.
+     * It adds the JMine instance, in a scroll pane for boards larger than the screen, to the center of the JFrame
+     * and sets its layout to BorderLayout.
      * The JFrame is set to exit the application when closed and is made visible.
-     * Finally, the method initializes the JMine instance, adds a key listener, and starts the game loop by calling the run method.
+     * Finally, the method initializes the JMine instance and adds a key listener. There is no game loop: the game reacts
+     * to mouse and key events on the Swing event thread, and its {@link GameClock} updates the timer while a game runs.
+     * </p>
+     * <p>
+     * With {@code --simulate N}, no window is opened; games are played headlessly by the {@link Simulator} instead.
+     * With {@code --verify-replays}, replay files are checked by the {@link ReplayVerifier} without a window either.
+     * With {@code --replay FILE}, the replay is shown in the window once it opens.
      * </p>
      *
-     * @param args The command-line arguments (not used in this method).
+     * @param args The command-line arguments.
      */
     public static void main(String @NotNull [] args) {
         JMine.osHack = System.getProperty("os.name").contains("Mac");
@@ -393,6 +476,15 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
             disableConsoleLogging();
         }
 
+        if (Simulator.isRequested(args)) {
+            Simulator.main(args);
+            return;
+        }
+        if (ReplayVerifier.isRequested(args)) {
+            ReplayVerifier.main(args);
+            return;
+        }
+
         if (JMine.osHack) {
             JMine.defaultBackground = Color.decode("#eeeeee");
         }
@@ -403,14 +495,36 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
         frame.setLayout(new BorderLayout());
         frame.setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
 
-        frame.add(jmine, BorderLayout.CENTER);
+        final JScrollPane scroller = new JScrollPane(jmine);
+        scroller.setBorder(BorderFactory.createEmptyBorder());
+        // The header stays at the top of the view, so scrolled content is repainted rather than copied
+        scroller.getViewport().setScrollMode(JViewport.SIMPLE_SCROLL_MODE);
+        scroller.getHorizontalScrollBar().setUnitIncrement(TILE_SIZE);
+        scroller.getVerticalScrollBar().setUnitIncrement(TILE_SIZE);
+        frame.add(scroller, BorderLayout.CENTER);
         frame.setLocationRelativeTo(null);
 
         jmine.init();
         frame.addKeyListener(jmine);
         frame.setVisible(true);
-        jmine.timer = new Timer(1000, e -> jmine.run());
-        jmine.run();
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals("--replay")) {
+                jmine.playReplay(Path.of(args[i + 1]));
+            }
+        }
+    }
+
+    /**
+     * Reads a replay file and shows it in the window.
+     *
+     * @param file the replay file
+     */
+    public void playReplay(final @NotNull Path file) {
+        try {
+            this.playReplay(Replay.read(Files.readAllBytes(file)));
+        } catch (final IOException e) {
+            logger.warn("Cannot show replay {}: {}", file, e.getMessage());
+        }
     }
 
     /**
@@ -523,6 +637,7 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
      * </p>
      */
     public void init() {
+        this.initStarted = System.nanoTime();
         gameParams = new GameParameters();
         this.difficulty = JMine.BEGINNER;
         this.mBoth = false;
@@ -530,11 +645,9 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
         this.mButton1 = false;
         this.mButton2 = false;
         this.mButton3 = false;
-        this.tiles = null;
         this.addMouseListener(this);
         this.addMouseMotionListener(this);
         this.addKeyListener(this);
-        this.paintMe = new ArrayList<>();
         this.flagDigits = new int[3];
         this.timeDigits = new int[3];
         this.setFlags(0);
@@ -544,6 +657,9 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
         this.setSize(winWidth, winHeight);
         frame.setSize(winWidth + 16, winHeight + 4);
         this.loadParameters();
+        this.mod.setScoreStore(this.openScoreStore());
+        this.engine.setLayoutPool(LayoutPool.DEFAULT_SIZE);
+        this.engine.setRevealSlice(REVEAL_SLICE);
         this.loadImages();
         this.newGame();
     }
@@ -552,7 +668,8 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
      * Loads parameters for configuring the game.
      * <p>
      * This method retrieves parameters from the applet's HTML embedding code to customize the game settings.
-     * It loads parameters for background color, foreground color, and game difficulty level.
+     * It loads parameters for background color, foreground color, safe-opening mine placement, no-guess boards, the
+     * random number generator algorithm, a fixed board seed and game difficulty level.
      * If parameters are not specified or cannot be parsed, default values are used.
      * The method sets the background and foreground colors based on the retrieved parameters and updates the game difficulty accordingly.
      * </p>
@@ -580,6 +697,24 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
             this.foregroundColor = JMine.DEFAULT_FOREGROUND;
         }
         this.setForeground(this.foregroundColor);
+        this.engine.setSafeOpening(Boolean.parseBoolean(this.getParameter(GameParameters.SAFE_OPENING)));
+        this.engine.setNoGuess(Boolean.parseBoolean(this.getParameter(GameParameters.NO_GUESS)));
+        final String algorithm = this.getParameter(GameParameters.RANDOM);
+        if (algorithm != null) {
+            try {
+                this.engine.setRandomAlgorithm(algorithm);
+            } catch (final IllegalArgumentException ex) {
+                logger.warn("Unknown random number generator {}, using {}", algorithm, MineEngine.DEFAULT_RANDOM);
+            }
+        }
+        final String seedParameter = this.getParameter(GameParameters.SEED);
+        if (seedParameter != null) {
+            try {
+                this.boardSeed = Long.decode(seedParameter);
+            } catch (final NumberFormatException ex) {
+                logger.warn("Invalid board seed {}", seedParameter);
+            }
+        }
         final String parameter3 = this.getParameter("difficulty");
         if (parameter3 == null) {
             this.difficulty = JMine.BEGINNER;
@@ -605,12 +740,16 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
      * <p>
      * This method initializes and loads images necessary for the game, such as mine tiles, faces, and timer digits.
      * It creates an image buffer, sets its dimensions based on the size of the component, and fills it with the background color.
-     * Images are loaded from the specified image path, or the code base if no path is provided.
-     * The method uses a MediaTracker to track the loading status of each image and handle errors if any occur.
+     * Images are read in one go from the {@link SpriteSheet} named by the {@code sprite_sheet} parameter. If that is
+     * not set or cannot be read, the separate GIF images are loaded from the specified image path, or the code base
+     * if no path is provided. All GIFs are registered with one MediaTracker before waiting, so they are fetched and
+     * decoded in parallel, and errors are reported per image once loading has finished.
+     * The tile images are then rendered into a single {@link TileAtlas} sprite sheet, and the face and digit images
+     * are converted to images compatible with the screen.
      * </p>
      */
     public void loadImages() {
-        final int n = 32;
+        final long started = System.nanoTime();
         int w = this.getSize().width;
         int h = this.getSize().height;
         this.buffer = this.createImage(w, h);
@@ -619,6 +758,99 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
         }
         this.bufferGC = this.buffer.getGraphics();
         this.bufferGC.setColor(this.backgroundColor);
+        this.imgFace = new Image[Smile.NUM_FACES];
+        this.imgTime = new Image[11];
+        if (!this.loadSpriteSheet()) {
+            this.loadGifs();
+        }
+        JMine.tileAtlas = new TileAtlas(JMine.tileImages, TILE_SIZE, TILE_SIZE, this);
+        for (int j = 0; j < this.imgFace.length; ++j) {
+            this.imgFace[j] = this.toCompatibleImage(this.imgFace[j], FACE_SIZE, FACE_SIZE);
+        }
+        for (int k = 0; k < this.imgTime.length; ++k) {
+            this.imgTime[k] = this.toCompatibleImage(this.imgTime[k], TIME_WIDTH, TIME_HEIGHT);
+        }
+        logger.info("Loaded images in {} ms", (System.nanoTime() - started) / 1_000_000L);
+    }
+
+    /**
+     * Opens the score store in the directory named by the {@code score_dir} parameter, or in {@code .jmine} in
+     * the home directory.
+     *
+     * @return the store, kept in memory only if the directory cannot be used
+     */
+    private ScoreStore openScoreStore() {
+        final Path path;
+        try {
+            path = this.scoreDir();
+        } catch (final InvalidPathException e) {
+            logger.warn("Cannot save scores in {}, keeping them for this session only", e.getInput());
+            return ScoreStore.inMemory();
+        }
+        try {
+            return ScoreStore.open(path);
+        } catch (final IOException e) {
+            logger.warn("Cannot save scores in {}, keeping them for this session only: {}", path, e.getMessage());
+            return ScoreStore.inMemory();
+        }
+    }
+
+    /**
+     * Returns the directory named by the {@code score_dir} parameter, or {@code .jmine} in the home directory.
+     *
+     * @return the directory scores and replays are saved in
+     * @throws InvalidPathException if the parameter is not a valid path
+     */
+    private Path scoreDir() {
+        final String dir = this.getParameter(GameParameters.SCORE_DIR);
+        return dir != null ? Path.of(dir) : Path.of(System.getProperty("user.home"), ".jmine");
+    }
+
+    /**
+     * Saves the replay of the last finished game in the {@code replays} folder of the score directory, named
+     * after the time it is saved.
+     */
+    private void saveReplay() {
+        final byte[] replay = this.recorder.last();
+        if (replay == null) {
+            return;
+        }
+        try {
+            final Path dir = Files.createDirectories(this.scoreDir().resolve("replays"));
+            final Path file = dir.resolve(System.currentTimeMillis() + ".jmr");
+            Files.write(file, replay);
+            logger.info("Saved replay to {}", file);
+        } catch (final IOException | InvalidPathException e) {
+            logger.warn("Cannot save replay: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the tile, face and digit images from the sprite sheet named by the {@code sprite_sheet} parameter.
+     *
+     * @return <code>true</code> if all images were read, <code>false</code> if the separate images should be loaded
+     */
+    private boolean loadSpriteSheet() {
+        final String name = this.getParameter(GameParameters.SPRITE_SHEET);
+        if (name == null || name.isEmpty()) {
+            return false;
+        }
+        try {
+            final SpriteSheet sheet = SpriteSheet.load(name);
+            sheet.sprites("tile", JMine.tileImages);
+            sheet.sprites("face", this.imgFace);
+            sheet.sprites("time", this.imgTime);
+            return true;
+        } catch (final IOException e) {
+            logger.warn("Cannot use sprite sheet {}, loading separate images: {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Loads the separate GIF images from the image path, all in parallel.
+     */
+    private void loadGifs() {
         final MediaTracker mediaTracker = new MediaTracker(this);
         String imagePath = this.getParameter("image_path");
         if (imagePath == null) {
@@ -631,62 +863,84 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
             logger.debug("DEBUG: no F");
             cb = "/";
         }
-        for (int i = 0; i < 16; ++i) {
-            loadGifs(i, cb, imagePath, mediaTracker, n);
+        final String[] names = new String[MineTile.NUM_IMAGES + Smile.NUM_FACES + 11];
+        int id = 0;
+        for (int i = 0; i < MineTile.NUM_IMAGES; ++i) {
+            names[id] = i + ".gif";
+            JMine.tileImages[i] = this.requestImage(cb, imagePath, names[id], mediaTracker, id++);
         }
-        this.imgFace = new Image[Smile.NUM_FACES];
         for (int j = 0; j < Smile.NUM_FACES; ++j) {
-            final String string2 = "f" + j + ".gif";
-            this.imgFace[j] = this.getImage(cb.toString(), imagePath + string2);
-            mediaTracker.addImage(this.imgFace[j], j + 16);
-            try {
-                logger.info("{}{}/{} ({}{})", LOADING_IMAGE, n, j + 16 + 1, imagePath, string2);
-                mediaTracker.waitForID(j + 16);
-            } catch (final InterruptedException ignored) {
-                Thread.currentThread().interrupt();
-            }
-            if (mediaTracker.isErrorID(j + 16)) {
-                logger.error(ERROR_LOADING + "{}{}", imagePath, string2);
-            }
+            names[id] = "f" + j + ".gif";
+            this.imgFace[j] = this.requestImage(cb, imagePath, names[id], mediaTracker, id++);
         }
-        this.imgTime = new Image[11];
         for (int k = 0; k < 11; ++k) {
-            final String tn = "t" + k + ".gif";
-            this.imgTime[k] = this.getImage(cb.toString(), imagePath + tn);
-            mediaTracker.addImage(this.imgTime[k], k + 16 + 5 + 1);
-            try {
-                logger.info("{}{}/{} ({}{})", LOADING_IMAGE, n, k + 16 + 5 + 1, imagePath, tn);
-                mediaTracker.waitForID(k + 16 + 5);
-            } catch (final InterruptedException ignored) {
-                Thread.currentThread().interrupt();
-            }
-            if (mediaTracker.isErrorID(k + 16 + 5)) {
-                logger.warn(ERROR_LOADING + "{}{}", imagePath, tn);
-            }
+            names[id] = "t" + k + ".gif";
+            this.imgTime[k] = this.requestImage(cb, imagePath, names[id], mediaTracker, id++);
         }
-    }
-
-    private void loadGifs(int i, @NotNull Object cb, String imagePath, @NotNull MediaTracker mediaTracker, int n) {
-        final String string = i + ".gif";
-        MineTile.images[i] = this.getImage(cb.toString(), imagePath + string);
-        mediaTracker.addImage(MineTile.images[i], i);
         try {
-            logger.info("{}{}/{} ({}{})", LOADING_IMAGE, i + 1, n, imagePath, string);
-            mediaTracker.waitForID(i);
+            mediaTracker.waitForAll();
         } catch (final InterruptedException ignored) {
             Thread.currentThread().interrupt();
         }
-        if (mediaTracker.isErrorID(i)) {
-            logger.error(ERROR_LOADING + "{}{}", imagePath, string);
+        for (int i = 0; i < names.length; ++i) {
+            if (mediaTracker.isErrorID(i)) {
+                logger.error(ERROR_LOADING + "{}{}", imagePath, names[i]);
+            }
         }
+        logger.info("Loaded {} images from {}", names.length, imagePath);
+    }
+
+    /**
+     * Starts loading an image and registers it with a media tracker.
+     *
+     * @param cb           the code base
+     * @param imagePath    the path of the images relative to the code base
+     * @param name         the file name of the image
+     * @param mediaTracker the tracker to register the image with
+     * @param id           the tracker id of the image
+     * @return the image, which may not be loaded yet
+     */
+    private Image requestImage(@NotNull Object cb, String imagePath, String name, @NotNull MediaTracker mediaTracker,
+                               int id) {
+        logger.debug("{}{}{}", LOADING_IMAGE, imagePath, name);
+        final Image image = this.getImage(cb.toString(), imagePath + name);
+        if (image != null) {
+            mediaTracker.addImage(image, id);
+        }
+        return image;
+    }
+
+    /**
+     * Copies a loaded image into an image compatible with the screen, keeping its transparency.
+     *
+     * @param image  the loaded image, or null
+     * @param width  the width of the copy
+     * @param height the height of the copy
+     * @return the copy, or the original image if it is null or failed to load
+     */
+    private Image toCompatibleImage(final Image image, final int width, final int height) {
+        if (image == null || image.getWidth(this) <= 0) {
+            return image;
+        }
+        final BufferedImage copy = TileAtlas.createImage(width, height, Transparency.TRANSLUCENT);
+        final Graphics2D g = copy.createGraphics();
+        try {
+            g.drawImage(image, 0, 0, width, height, this);
+        } finally {
+            g.dispose();
+        }
+        return copy;
     }
 
     /**
      * Handles the game state when the player wins the game.
      * <p>
      * This method sets the clearScreen flag to true, changes the face of the game to a winning face,
-     * stops the game counter, reveals all remaining tiles, prompts the player to enter their name for the high score,
-     * updates the high score if necessary, and resets the game to its initial state.
+     * stops the game counter, prompts the player to enter their name for the high score,
+     * updates the high score if necessary, and resets the game to its initial state. Times are compared and
+     * recorded in milliseconds. Every win is recorded, with the 3BV of the board, in the statistics of the
+     * player; the score store saves it in the background.
+     * The engine has already flagged all remaining mines.
      * </p>
      */
     public void winGame() {
@@ -694,69 +948,106 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
         this.setFace(Smile.WIN);
         this.stopCounter();
         this.setFlags(0);
-
-        // Reveal all remaining tiles
-        for (int i = 0; i < tiles.length * tiles[0].length; i++) {
-            int x = i / tiles[0].length;
-            int y = i % tiles[0].length;
-            MineTile tile = tiles[x][y];
-
-            if (tile.isMine()) {
-                touch(x, y, 10);
-            } else if (!tile.revealed()) {
-                reveal(x, y);
-            }
+        if (this.replay != null) {
+            return;
         }
+        this.recorder.finish(MineEngine.WON, this.engine.seed(), this.engine.randomAlgorithm());
 
         // Prompt for high score if current time is better than the previous best score
-        if (this.time < this.mod.getBestScore(this.difficulty).time()) {
+        final long millis = this.clock.millis();
+        final boolean best = millis < this.mod.getBestScore(this.difficulty).time();
+        if (best) {
             try {
                 Thread.sleep(500L);
             } catch (final InterruptedException ignored) {
                 Thread.currentThread().interrupt();
             }
-            // Prompt for name and update high score
+            // Prompt for name
             final NameDialog nameDialog = new NameDialog(new Frame(), this.mod.getBestScore(this.difficulty).name());
             nameDialog.setModal(true);
             nameDialog.setVisible(true);
-            this.mod.setHighScore(this.difficulty, nameDialog.getName(), this.time);
-
+            this.playerName = nameDialog.getName();
+            this.mod.setPlayer(this.playerName);
+        }
+        this.mod.recordGame(this.difficulty, this.playerName, true, millis, this.engine.bbbv());
+        if (best) {
             // Reset the game
             this.mod.setGame(this.difficulty);
+            this.mod.setNoGuess(this.engine.isNoGuess());
             this.mod.setModal(true);
             this.mod.setVisible(true);
             this.difficulty = this.mod.getGame(this.difficulty);
+            this.engine.setNoGuess(this.mod.getNoGuess(this.engine.isNoGuess()));
         }
     }
 
     /**
      * Handles the game state when the player loses the game.
      * <p>
-     * This method sets the clearScreen flag to true, changes the face of the game to a losing face,
-     * stops the game counter, reveals all hidden mines, and marks incorrectly flagged tiles as wrong.
+     * This method sets the clearScreen flag to true, changes the face of the game to a losing face
+     * and stops the game counter. The loss is recorded in the statistics of the player. The engine has already
+     * revealed all hidden mines and marked incorrectly flagged tiles as wrong.
      * </p>
      */
     public void loseGame() {
         this.clearScreen = true;
         this.setFace(Smile.LOSE);
         this.stopCounter();
+        if (this.replay != null) {
+            return;
+        }
+        this.recorder.finish(MineEngine.LOST, this.engine.seed(), this.engine.randomAlgorithm());
+        this.mod.recordGame(this.difficulty, this.playerName, false, this.clock.millis(), this.engine.bbbv());
+    }
 
-        for (int x = 0; x < this.tiles.length; x++) {
-            for (int y = 0; y < this.tiles[0].length; y++) {
-                MineTile currentTile = this.tiles[x][y];
-                if (currentTile.revealed()) {
-                    continue; // Skip already revealed tiles
-                }
-
-                if (currentTile.isMine() && currentTile.index == MineTile.HIDDEN) {
-                    currentTile.setRevealed(true);
-                    this.touch(x, y, MineTile.MINE);
-                } else if (currentTile.index == MineTile.FLAG && !currentTile.isMine()) {
-                    currentTile.setRevealed(true);
-                    this.touch(x, y, MineTile.WRONG);
-                }
-            }
+    /**
+     * Queues the tiles changed by the engine for repainting.
+     *
+     * @param cells the changed cell numbers
+     * @param count the number of valid entries in {@code cells}
+     */
+    @Override
+    public void tilesChanged(final int[] cells, final int count) {
+        final int width = this.engine.width();
+        for (int i = 0; i < count; i++) {
+            this.dirtyTiles.add(cells[i] % width, cells[i] / width);
         }
+        this.hintsStale = true;
+    }
+
+    /**
+     * Queues the whole board for repainting when too many tiles changed to list them.
+     */
+    @Override
+    public void boardChanged() {
+        this.dirtyTiles.fill(this.engine.width(), this.engine.height());
+        this.hintsStale = true;
+    }
+
+    /**
+     * Starts the game counter when the engine reports the first reveal.
+     */
+    @Override
+    public void gameStarted() {
+        this.recorder.started();
+        this.newGame = false;
+        this.startCounter();
+    }
+
+    /**
+     * Forwards the engine's win to {@link #winGame()}.
+     */
+    @Override
+    public void gameWon() {
+        this.winGame();
+    }
+
+    /**
+     * Forwards the engine's loss to {@link #loseGame()}.
+     */
+    @Override
+    public void gameLost() {
+        this.loseGame();
     }
 
     /**
@@ -767,97 +1058,388 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
     }
 
     /**
-     * Start a new game with the specified difficulty.
+     * Start a new game with the specified difficulty. A huge board is laid out in the background, and its
+     * game starts once the board is ready.
      *
      * @param difficulty difficulty to set
+     * @see Game#isHuge()
      */
     public void newGame(final @NotNull Game difficulty) {
+        this.stopReplay();
+        if (this.boardSeed != null) {
+            this.newGame(difficulty, this.boardSeed);
+            return;
+        }
         this.difficulty = difficulty;
-        int dWidth = difficulty.width();
-        int dHeight = difficulty.height();
-        this.tiles = new MineTile[dWidth][dHeight];
-        if (difficulty.mines() >= dWidth * dHeight) {
-            logger.info("Impossible game!");
+        this.layingOut = null;
+        if (difficulty.isHuge()) {
+            this.layOut(difficulty, this.engine.layOut(difficulty), false);
+        } else if (this.engine.newGame(difficulty)) {
+            this.resetBoard(difficulty);
+        }
+    }
+
+    /**
+     * Start a new game with the specified difficulty, generating the board from a seed.
+     * The same difficulty and seed always give the same board.
+     *
+     * @param difficulty difficulty to set
+     * @param seed       seed of the board
+     */
+    public void newGame(final @NotNull Game difficulty, final long seed) {
+        this.stopReplay();
+        this.difficulty = difficulty;
+        this.layingOut = null;
+        if (difficulty.isHuge()) {
+            this.layOut(difficulty, this.engine.layOut(difficulty, seed), true);
+        } else if (this.engine.newGame(difficulty, seed)) {
+            this.resetBoard(difficulty);
+        }
+    }
+
+    /**
+     * Lays out a huge board on a worker thread. Meanwhile the clock is stopped and clicks on the board are
+     * ignored; the game starts on the event dispatch thread once the board is ready, unless another game was
+     * started in the meantime.
+     *
+     * @param difficulty the game to play
+     * @param task       lays out the board
+     * @param seeded     {@code true} if the seed of the board was given
+     */
+    private void layOut(final @NotNull Game difficulty, final @NotNull Callable<LayoutPool.Ready> task,
+                        final boolean seeded) {
+        this.stopCounter();
+        final SwingWorker<LayoutPool.Ready, Void> worker = new SwingWorker<>() {
+            @Override
+            protected LayoutPool.Ready doInBackground() throws Exception {
+                return task.call();
+            }
+
+            @Override
+            protected void done() {
+                JMine.this.laidOut(this, difficulty, seeded);
+            }
+        };
+        this.layingOut = worker;
+        worker.execute();
+    }
+
+    /**
+     * Starts the game on a board laid out in the background.
+     *
+     * @param worker     the worker that laid out the board
+     * @param difficulty the game to play
+     * @param seeded     {@code true} if the seed of the board was given
+     */
+    private void laidOut(final SwingWorker<LayoutPool.Ready, Void> worker, final @NotNull Game difficulty,
+                         final boolean seeded) {
+        if (worker != this.layingOut) {
+            return; // another game was started in the meantime
+        }
+        this.layingOut = null;
+        final LayoutPool.Ready ready;
+        try {
+            ready = worker.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (final ExecutionException e) {
+            logger.warn("Cannot lay out a {}x{} board: {}", difficulty.width(), difficulty.height(), e.getCause().toString());
             return;
         }
+        if (this.engine.newGame(difficulty, ready, seeded)) {
+            this.resetBoard(difficulty);
+        }
+    }
+
+    /**
+     * Checks whether clicks on the board are to be ignored: while a replay is shown, a huge board is laid out
+     * or a cascade is still opening.
+     *
+     * @return {@code true} if the board does not take input
+     */
+    private boolean isBoardBusy() {
+        return this.replay != null || this.layingOut != null || this.engine.isRevealing();
+    }
+
+    /**
+     * Opens the rest of a cascade the engine left pending in later events, one slice at a time, so that the
+     * window is repainted and stays responsive while a huge region opens.
+     *
+     * @see MineEngine#setRevealSlice(int)
+     */
+    private void revealLater() {
+        if (this.engine.isRevealing() && !this.revealPending) {
+            this.revealPending = true;
+            SwingUtilities.invokeLater(this::revealSlice);
+        }
+    }
+
+    private void revealSlice() {
+        this.revealPending = false;
+        if (this.engine.isRevealing()) {
+            this.engine.continueReveal();
+            this.draw();
+            this.revealLater();
+        }
+    }
+
+    /**
+     * Shows a recorded game in the window at the speed it was played. Mouse clicks on the board are ignored
+     * until the replay ends or a new game is started; the game settings are then restored.
+     *
+     * @param replay the replay to show
+     * @see ReplayVerifier
+     */
+    public void playReplay(final @NotNull Replay replay) {
+        this.stopReplay();
+        this.stopCounter();
+        this.layingOut = null;
+        this.replaySettings = new Settings(this.engine.randomAlgorithm(), this.engine.isSafeOpening(),
+                this.engine.isNoGuess());
+        if (!ReplayVerifier.start(this.engine, replay)) {
+            logger.warn("Cannot show replay of {} with {}", replay.game(), replay.algorithm());
+            this.restoreSettings();
+            return;
+        }
+        this.replay = replay;
+        this.replayEvent = 0;
+        this.replayPressed = -1;
+        this.resetBoard(replay.game());
+        this.replayStarted = System.nanoTime();
+        this.playback = new Timer(0, e -> this.playEvents());
+        this.playback.setRepeats(false);
+        this.playback.start();
+    }
+
+    /**
+     * Shows the replay events that are due and waits for the next one.
+     */
+    private void playEvents() {
+        final Replay r = this.replay;
+        if (r == null) {
+            return;
+        }
+        final long now = (System.nanoTime() - this.replayStarted) / 1_000_000L;
+        while (this.replayEvent < r.events() && r.at(this.replayEvent) <= now) {
+            final int i = this.replayEvent++;
+            while (this.engine.isRevealing()) {
+                this.engine.continueReveal();
+            }
+            this.replayPressed = ReplayVerifier.apply(this.engine, r, i, this.replayPressed);
+            if (r.type(i) == Replay.PRESS) {
+                this.setFace(Smile.CLICK);
+                continue;
+            }
+            this.setFlags(this.engine.flags());
+            if (this.face == Smile.CLICK) {
+                this.setFace(Smile.SMILE_STATE);
+            }
+        }
+        this.revealLater();
+        this.draw();
+        if (this.replayEvent < r.events()) {
+            this.playback.setInitialDelay((int) Math.min(r.at(this.replayEvent) - now, Integer.MAX_VALUE));
+            this.playback.start();
+        } else {
+            this.stopReplay();
+        }
+    }
+
+    /**
+     * Ends the replay being shown, if any, and restores the game settings. The board is left as it is.
+     */
+    private void stopReplay() {
+        if (this.replay == null) {
+            return;
+        }
+        this.playback.stop();
+        this.playback = null;
+        this.replay = null;
+        this.restoreSettings();
+    }
+
+    private void restoreSettings() {
+        final Settings settings = this.replaySettings;
+        this.replaySettings = null;
+        if (!this.engine.randomAlgorithm().equals(settings.algorithm())) {
+            this.engine.setRandomAlgorithm(settings.algorithm());
+        }
+        this.engine.setSafeOpening(settings.safeOpening());
+        this.engine.setNoGuess(settings.noGuess());
+    }
+
+    /**
+     * Lays out the window for a new board and resets the counters and the face. The window is only resized
+     * when the board size changed, and never beyond the screen; the rest of a larger board is scrolled into
+     * view. Without a frame, as when the panel is used headless, only the panel itself is sized.
+     *
+     * @param difficulty difficulty of the new board
+     */
+    private void resetBoard(final @NotNull Game difficulty) {
+        int dWidth = difficulty.width();
+        int dHeight = difficulty.height();
         int winHeight = (dHeight * TILE_SIZE) + FACE_SIZE + 60;
         int winWidth = (dWidth * TILE_SIZE) + 20;
 
-        this.setSize(winWidth, winHeight);
-        frame.setSize(winWidth + 16, winHeight + 4);
+        final Dimension size = new Dimension(winWidth, winHeight);
+        final boolean resized = !size.equals(this.getPreferredSize());
+        if (resized) {
+            this.setPreferredSize(size);
+            this.setSize(size);
+            if (frame != null) {
+                this.fitFrame(size);
+            }
+        }
 
+        this.clock.reset();
         this.setTime(0);
         this.mBoth = false;
         JMine.setOffsetX((winWidth - dWidth * TILE_SIZE) / 2);
         JMine.setOffsetY(40);
-        JMine.setFlagsX(JMine.getOffsetX() + 3);
-        JMine.setFlagsY(10);
-        JMine.setFaceX(JMine.getOffsetX() + dWidth * TILE_SIZE / 2 - FLAGS_WIDTH);
-        JMine.setFaceY(10);
-        JMine.setTimeX(JMine.getOffsetX() + dWidth * TILE_SIZE - 39);
-        JMine.setTimeY(10);
-
-        this.paintMe = new ArrayList<>();
-        int n = 0;
-        for (int i = 0; i < dWidth; ++i) {
-            for (int j = 0; j < dHeight; ++j) {
-                this.tiles[i][j] = new MineTile(n++ < difficulty.mines());
-                this.paintMe.add(this.tiles[i][j]);
-            }
+        this.placeHeader();
+        if (difficulty.isHuge()) {
+            this.hints = null;
         }
 
-        for (int i = 0; i < dWidth * dHeight; i++) {
-            int x1 = rand.nextInt(dWidth);
-            int y1 = rand.nextInt(dHeight);
-            int x2 = rand.nextInt(dWidth);
-            int y2 = rand.nextInt(dHeight);
-
-            MineTile temp = tiles[x1][y1];
-            tiles[x1][y1] = tiles[x2][y2];
-            tiles[x2][y2] = temp;
-        }
-        for (int x = 0; x < dWidth; ++x) {
-            for (int y = 0; y < dHeight; ++y) {
-                this.touch(x, y, 9);
-                this.tiles[x][y].x = x;
-                this.tiles[x][y].y = y;
-                if (!this.tiles[x][y].isMine()) {
-                    for (int dx = -1; dx <= 1; dx++) {
-                        for (int dy = -1; dy <= 1; dy++) {
-                            if (dx == 0 && dy == 0) continue; // Skip current tile
-                            int nx = x + dx;
-                            int ny = y + dy;
-                            if (nx >= 0 && nx < dWidth && ny >= 0 && ny < dHeight && this.tiles[nx][ny].isMine()) {
-                                this.tiles[x][y].number++;
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        this.hidden = dWidth * dHeight;
-        this.flags = difficulty.mines();
-        this.setFlags(this.flags);
-        this.mines = difficulty.mines();
+        this.dirtyTiles.clear();
+        this.setFlags(this.engine.flags());
         this.flagsChanged = true;
         this.timeChanged = true;
         this.face = Smile.SMILE_STATE;
         this.faceChanged = true;
         this.newGame = true;
-        frame.revalidate();
-        frame.repaint();
+        this.recorder.start(difficulty, this.engine.isSafeOpening() || this.engine.isNoGuess());
+        this.hintsStale = true;
+        if (resized && frame != null) {
+            frame.revalidate();
+            frame.repaint();
+        }
         this.clearScreen = true;
         this.draw(true);
     }
 
+    /**
+     * Sizes the frame to show the whole panel, but no larger than the screen.
+     *
+     * @param size the size of the panel
+     */
+    private void fitFrame(final @NotNull Dimension size) {
+        final Rectangle screen = GraphicsEnvironment.getLocalGraphicsEnvironment().getMaximumWindowBounds();
+        final Container scroller = SwingUtilities.getAncestorOfClass(JScrollPane.class, this);
+        if (scroller != null) {
+            scroller.setPreferredSize(new Dimension(Math.min(size.width, screen.width),
+                    Math.min(size.height, screen.height)));
+        }
+        frame.pack();
+        frame.setSize(Math.min(frame.getWidth(), screen.width), Math.min(frame.getHeight(), screen.height));
+    }
+
+    /**
+     * Places the flags, face and time at the top of the visible part of the panel, over the visible columns
+     * of the board, so that they stay in view while a large board is scrolled.
+     */
+    private void placeHeader() {
+        final Rectangle view = this.viewArea();
+        final int boardWidth = this.engine.width() * TILE_SIZE;
+        final int left = Math.max(JMine.getOffsetX(), view.x + JMine.getOffsetX());
+        final int right = Math.min(JMine.getOffsetX() + boardWidth, view.x + view.width - JMine.getOffsetX());
+        JMine.setFlagsX(left + 3);
+        JMine.setFlagsY(view.y + 10);
+        JMine.setFaceX(left + (right - left) / 2 - FLAGS_WIDTH);
+        JMine.setFaceY(view.y + 10);
+        JMine.setTimeX(right - 39);
+        JMine.setTimeY(view.y + 10);
+    }
+
+    /**
+     * Returns the part of the panel in view: all of it unless the panel is scrolled or not shown.
+     *
+     * @return the visible rectangle, or the bounds of the panel if nothing is visible
+     */
+    private Rectangle viewArea() {
+        final Rectangle view = this.getVisibleRect();
+        return view.isEmpty() ? new Rectangle(0, 0, this.getWidth(), this.getHeight()) : view;
+    }
+
+    /**
+     * Returns the column of the tile at a point of the panel.
+     *
+     * @param x the x-coordinate of the point
+     * @return the tile column, which may lie outside the board
+     */
+    private static int tileX(final int x) {
+        return Math.floorDiv(x - JMine.getOffsetX(), TILE_SIZE);
+    }
+
+    /**
+     * Returns the row of the tile at a point of the panel. Points in the header above the visible tiles give
+     * -1, as the tiles scrolled under it are hidden.
+     *
+     * @param y the y-coordinate of the point
+     * @return the tile row, which may lie outside the board
+     */
+    private int tileY(final int y) {
+        if (y < this.viewArea().y + JMine.getOffsetY()) {
+            return -1;
+        }
+        return Math.floorDiv(y - JMine.getOffsetY(), TILE_SIZE);
+    }
+
     /**
      * Draw the play field.
+     * <p>
+     * Unless everything is to be painted, only the changed counters, face and tile rectangles are
+     * repainted. While hints are shown, a changed board updates the probabilities and repaints all tiles.
+     * </p>
      *
      * @param paintAll if true, paint all tiles.
      */
     public void draw(final boolean paintAll) {
-        this.paintAll = paintAll;
-        this.repaint();
+        final boolean hintsChanged = this.hints != null && this.hintsStale;
+        if (hintsChanged) {
+            this.hints.compute();
+            this.hintsStale = false;
+        }
+        if (paintAll || this.clearScreen || hintsChanged) {
+            this.paintAll = true;
+            this.clearScreen = false;
+            this.dirtyTiles.clear();
+            this.repaint();
+            return;
+        }
+        if (this.faceChanged) {
+            this.repaintRegion(JMine.getFaceX(), JMine.getFaceY(), FACE_SIZE, FACE_SIZE);
+        }
+        if (this.flagsChanged) {
+            this.repaintRegion(JMine.getFlagsX(), JMine.getFlagsY(), 3 * FLAGS_WIDTH, FLAGS_HEIGHT);
+        }
+        if (this.timeChanged) {
+            this.repaintRegion(JMine.getTimeX(), JMine.getTimeY(), 3 * TIME_WIDTH, TIME_HEIGHT);
+        }
+        for (int i = 0; i < this.dirtyTiles.size(); i++) {
+            this.repaintRegion(JMine.getOffsetX() + TILE_SIZE * this.dirtyTiles.x(i),
+                    JMine.getOffsetY() + TILE_SIZE * this.dirtyTiles.y(i),
+                    TILE_SIZE * this.dirtyTiles.width(i), TILE_SIZE * this.dirtyTiles.height(i));
+        }
+        this.dirtyTiles.clear();
+    }
+
+    /**
+     * Repaints part of the panel. On the event dispatch thread the area is painted straight away, because
+     * the repaint manager would otherwise merge all pending areas into their bounding box.
+     *
+     * @param x      the x-coordinate of the area
+     * @param y      the y-coordinate of the area
+     * @param width  the width of the area
+     * @param height the height of the area
+     */
+    private void repaintRegion(final int x, final int y, final int width, final int height) {
+        if (SwingUtilities.isEventDispatchThread() && this.isShowing()) {
+            this.paintImmediately(x, y, width, height);
+        } else {
+            this.repaint(x, y, width, height);
+        }
     }
 
     /**
@@ -887,9 +1469,9 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
         }
         if (this.paintAll) {
             this.paint(this.bufferGC);
-            graphics.drawImage(this.buffer, JMine.getOffsetX(), JMine.getFaceY(), this.tiles.length * 16 + JMine.getOffsetX(),
-                    this.tiles[0].length * 16 + JMine.getOffsetY(), JMine.getOffsetX(), JMine.getFaceY(),
-                    this.tiles.length * 16 + JMine.getOffsetX(), this.tiles[0].length * 16 + JMine.getOffsetY(), this);
+            graphics.drawImage(this.buffer, JMine.getOffsetX(), JMine.getFaceY(), this.engine.width() * 16 + JMine.getOffsetX(),
+                    this.engine.height() * 16 + JMine.getOffsetY(), JMine.getOffsetX(), JMine.getFaceY(),
+                    this.engine.width() * 16 + JMine.getOffsetX(), this.engine.height() * 16 + JMine.getOffsetY(), this);
             return;
         }
         this.paint(graphics);
@@ -950,14 +1532,13 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
      * @param index The index representing the new state of the tile.
      */
     public void touch(final int x, final int y, final int index) {
-        if (this.tiles[x][y].index != index) {
-            this.paintMe.add(this.tiles[x][y]);
-            this.tiles[x][y].touch(index);
-        }
+        this.engine.touch(x, y, index);
     }
 
     /**
-     * Paints the game field.
+     * Paints the game field. Only the parts inside the clip of the graphics context are painted, unless
+     * a full repaint was requested with {@link #draw(boolean)}. The header with the flags, face and time is
+     * painted last, over the top of the visible part of the panel, hiding the tiles scrolled under it.
      *
      * @param graphics the <code>Graphics</code> context in which to paint
      */
@@ -968,11 +1549,23 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
             this.paintAll = true;
         }
 
-        this.paintFace(graphics, this.paintAll);
-        this.paintFlags(graphics, this.paintAll);
-        this.paintTime(graphics, this.paintAll);
-        this.paintTiles(graphics, this.paintAll);
-        this.paintAll = true;
+        final Rectangle clip = graphics.getClipBounds();
+        final boolean all = this.paintAll || clip == null;
+        final Rectangle view = this.viewArea();
+        this.placeHeader();
+        this.paintTiles(graphics, all);
+        if (all || clip.intersects(view.x, view.y, view.width, JMine.getOffsetY())) {
+            graphics.setColor(this.backgroundColor);
+            graphics.fillRect(view.x, view.y, view.width, JMine.getOffsetY());
+            this.paintFace(graphics, true);
+            this.paintFlags(graphics, true);
+            this.paintTime(graphics, true);
+        }
+        this.paintAll = false;
+        if (this.initStarted != 0) {
+            logger.info("First frame painted {} ms after start", (System.nanoTime() - this.initStarted) / 1_000_000L);
+            this.initStarted = 0;
+        }
     }
 
     /**
@@ -1033,7 +1626,8 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
     }
 
     /**
-     * Paints the time on the screen.
+     * Paints the time on the screen in whole seconds. Past 999 seconds the display stays at 999 while the
+     * game clock keeps counting.
      *
      * @param graphics The <code>Graphics</code> context in which to paint.
      * @param b        If <code>true</code>, paints only the updated time.
@@ -1042,7 +1636,6 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
         if (b || this.timeChanged) {
             final int[] array = new int[3];
             if (this.time > 999) {
-                this.stopCounter();
                 array[0] = 9;
                 array[2] = (array[1] = 9);
             } else {
@@ -1062,35 +1655,55 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
     }
 
     /**
-     * Paints the tiles on the game field.
+     * Paints the tiles on the game field. Tiles outside the visible part of the panel, or hidden under the
+     * header, are never painted, so the cost does not grow with the size of the board.
      *
      * @param graphics The <code>Graphics</code> context in which to paint.
-     * @param b        If <code>true</code>, paints all tiles; if <code>false</code>, paints only the updated tiles.
+     * @param b        If <code>true</code>, paints all visible tiles; if <code>false</code>, paints only the tiles
+     *                 inside the clip of the graphics context.
+     *                 While hints are on, each hidden tile is tinted from green to red by its mine probability.
      */
     public void paintTiles(final Graphics graphics, final boolean b) {
-        if (this.tiles == null) {
+        final MineBoard board = this.engine.board();
+        if (board == null) {
             return;
         }
-        if (b) {
-            for (int i = 0; i < this.tiles.length; ++i) {
-                for (int j = 0; j < this.tiles[i].length; ++j) {
-                    if (this.tiles[i][j] == null) {
-                        logger.debug("NULL!");
-                    } else {
-                        this.tiles[i][j].draw(graphics, JMine.getOffsetX() + 16 * i,
-                                JMine.getOffsetY() + 16 * j, this);
-                        this.tiles[i][j].touched = false;
-                    }
+        final Rectangle view = this.viewArea();
+        final Rectangle clip = b ? null : graphics.getClipBounds();
+        final Rectangle area = clip != null ? clip.intersection(view) : view;
+        final int x0 = Math.max(0, JMine.tileX(area.x));
+        final int y0 = Math.max(0, Math.floorDiv(Math.max(area.y - JMine.getOffsetY(), view.y), TILE_SIZE));
+        final int x1 = Math.min(board.width - 1, JMine.tileX(area.x + area.width - 1));
+        final int y1 = Math.min(board.height - 1, Math.floorDiv(area.y + area.height - 1 - JMine.getOffsetY(), TILE_SIZE));
+        final boolean showHints = this.hints != null && !this.hintsStale && this.engine.state() <= MineEngine.PLAYING;
+        for (int j = y0; j <= y1; ++j) {
+            for (int i = x0; i <= x1; ++i) {
+                final int cell = board.cell(i, j);
+                final int index = board.index(cell);
+                final int x = JMine.getOffsetX() + TILE_SIZE * i;
+                final int y = JMine.getOffsetY() + TILE_SIZE * j;
+                this.drawTile(graphics, index, x, y);
+                if (showHints && (index == MineTile.HIDDEN || index == MineTile.QMARK)) {
+                    graphics.setColor(HINT_COLORS[(int) Math.round(this.hints.probability(cell) * 10)]);
+                    graphics.fillRect(x + 2, y + 2, TILE_SIZE - 4, TILE_SIZE - 4);
                 }
             }
-            return;
         }
-        for (final MineTile mineTile : this.paintMe) {
-            mineTile.draw(graphics, JMine.getOffsetX() + 16 * mineTile.x,
-                    JMine.getOffsetY() + 16 * mineTile.y, this);
-            this.tiles[mineTile.x][mineTile.y].touched = false;
+    }
+
+    /**
+     * Draws a tile with its current index at the specified location.
+     *
+     * @param graphics The graphics context to draw the tile.
+     * @param index    The display index of the tile.
+     * @param x        The x-coordinate of the tile's top-left corner.
+     * @param y        The y-coordinate of the tile's top-left corner.
+     */
+    private void drawTile(final Graphics graphics, final int index, final int x, final int y) {
+        final TileAtlas atlas = JMine.tileAtlas;
+        if (atlas != null) {
+            atlas.draw(graphics, index, x, y);
         }
-        this.paintMe.clear();
     }
 
     /**
@@ -1100,183 +1713,42 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
      * @param y The y-coordinate of the tile.
      */
     public void reveal(final int x, final int y) {
-        if (x < 0 || y < 0 || x >= this.tiles.length || y >= this.tiles[0].length) {
-            return;
-        }
-        if (this.tiles[x][y].getRevealed()) {
-            return;
-        }
-        if ((this.tiles[x][y].isMine() && this.tiles[x][y].index == MineTile.FLAG) ||
-                this.tiles[x][y].index == MineTile.MINE || this.tiles[x][y].index == MineTile.REDMINE ||
-                this.tiles[x][y].index == MineTile.WRONG) {
-            return;
-        }
-        this.tiles[x][y].setRevealed(true);
-        if (this.newGame) {
-            this.newGame = false;
-            this.startCounter();
-            if (this.tiles[x][y].isMine()) {
-                int x2 = 0;
-                int y2 = 0;
-                boolean b = false;
-                for (int i = 0; i < this.tiles.length && !b; ++i) {
-                    for (int j = 0; j < this.tiles[i].length && !b; ++j) {
-                        if (!this.tiles[i][j].isMine() && (i != x || j != y)) {
-                            b = true;
-                            x2 = i;
-                            y2 = j;
-                        }
-                    }
-                }
-                if (!this.tiles[x2][y2].isMine()) {
-                    this.tiles[x2][y2].index = MineTile.HIDDEN;
-                    this.tiles[x2][y2].number = -1;
-                    this.tiles[x][y].index = MineTile.HIDDEN;
-                    this.tiles[x][y].number = 0;
-                    for (int i = 0; i < this.tiles.length; ++i) {
-                        for (int j = 0; j < this.tiles[i].length; ++j) {
-                            if (!this.tiles[i][j].isMine()) {
-                                this.tiles[i][j].number = 0;
-                                if (i > 0 && j > 0 && this.tiles[i - 1][j - 1].isMine()) {
-                                    final MineTile mineTile = this.tiles[i][j];
-                                    ++mineTile.number;
-                                }
-                                if (i > 0 && this.tiles[i - 1][j].isMine()) {
-                                    final MineTile mineTile2 = this.tiles[i][j];
-                                    ++mineTile2.number;
-                                }
-                                if (i > 0 && j < this.tiles[i].length - 1 && this.tiles[i - 1][j + 1].isMine()) {
-                                    final MineTile mineTile3 = this.tiles[i][j];
-                                    ++mineTile3.number;
-                                }
-                                if (j < this.tiles[i].length - 1 && this.tiles[i][j + 1].isMine()) {
-                                    final MineTile mineTile4 = this.tiles[i][j];
-                                    ++mineTile4.number;
-                                }
-                                if (i < this.tiles.length - 1 && j < this.tiles[i].length - 1 &&
-                                        this.tiles[i + 1][j + 1].isMine()) {
-                                    final MineTile mineTile5 = this.tiles[i][j];
-                                    ++mineTile5.number;
-                                }
-                                if (i < this.tiles.length - 1 && this.tiles[i + 1][j].isMine()) {
-                                    final MineTile mineTile6 = this.tiles[i][j];
-                                    ++mineTile6.number;
-                                }
-                                if (i < this.tiles.length - 1 && j > 0 && this.tiles[i + 1][j - 1].isMine()) {
-                                    final MineTile mineTile7 = this.tiles[i][j];
-                                    ++mineTile7.number;
-                                }
-                                if (j > 0 && this.tiles[i][j - 1].isMine()) {
-                                    final MineTile mineTile8 = this.tiles[i][j];
-                                    ++mineTile8.number;
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        if (this.tiles[x][y].isMine()) {
-            this.touch(x, y, MineTile.REDMINE);
-            this.loseGame();
-            return;
-        }
-        --this.hidden;
-        if (this.hidden < 0) {
-            logger.debug("miscount!");
-        }
-        if (this.hidden == this.mines) {
-            this.winGame();
-        }
-        if (this.tiles[x][y].index == MineTile.FLAG) {
-            return;
-        }
-        this.touch(x, y, this.tiles[x][y].number);
-        if (this.tiles[x][y].index == 0) {
-            revealRecurse(x, y);
-            return;
-        }
-        if (this.face != 3 && this.face != 1) {
+        this.engine.reveal(x, y);
+        this.revealLater();
+        if (this.face != Smile.LOSE && this.face != Smile.WIN) {
             this.setFace(Smile.SMILE_STATE);
         }
     }
 
-    private void revealRecurse(int x, int y) {
-        this.reveal(x - 1, y - 1);
-        this.reveal(x - 1, y);
-        this.reveal(x - 1, y + 1);
-        this.reveal(x, y + 1);
-        this.reveal(x + 1, y + 1);
-        this.reveal(x + 1, y);
-        this.reveal(x + 1, y - 1);
-        this.reveal(x, y - 1);
-    }
-
     /**
-     * The run method continuously updates the game timer and redraws the game screen.
-     * <p>
-     * This method is executed by the Timer to ensure smooth execution of the game loop.
-     * It updates the game timer and redraws the game screen as long as the {@code stopAll} flag is not set
-     * and a new game is not started.
-     * <p>
-     * During each iteration of the loop, the elapsed time since the game started is calculated,
-     * and if the time has changed, it updates the game timer and redraws the game screen.
+     * Shows the time of the running game, called by the clock each time the elapsed seconds change.
      *
-     * @see Timer
-     * @see Date#getTime()
-     */
-    public void run() {
-        if (!this.stopAll && !this.newGame) {
-            final long runTimer = new Date().getTime() - this.startTime;
-            final int iTime = (int) (runTimer / 1000L);
-            if (iTime != this.time && !this.stopAll && !this.newGame) {
-                this.setTime(iTime);
-                this.draw();
-            }
+     * @param seconds the elapsed whole seconds
+     */
+    private void showTime(final int seconds) {
+        if (!this.newGame) {
+            this.setTime(seconds);
+            this.draw();
         }
     }
 
     /**
-     * Starts the game timer.
-     * <p>
-     * Initializes the timer variables, including setting the elapsed time to 0 and recording the start time.
-     * Sets the stopAll flag to false, indicating that the timer is active.
-     * If the game engine thread is not already running, it starts a new thread to run the game loop.
-     * Additionally, starts the Swing Timer if it is not already running.
+     * Starts the game clock from zero and shows zero seconds.
      *
-     * @see Thread#start()
-     * @see Date#getTime()
-     * @see Timer#start()
+     * @see GameClock#start()
      */
     public void startCounter() {
-        this.time = 0;
-        this.startTime = new Date().getTime();
-        this.stopAll = false;
-        if (!timer.isRunning()) {
-            timer.start();
-        }
+        this.setTime(0);
+        this.clock.start();
     }
 
     /**
-     * Stops the game timer.
-     * <p>
-     * Sets the stopAll flag to true, indicating that all game activities should be stopped.
-     * Invokes the stop() method to terminate the game engine thread.
+     * Stops the game clock, keeping the time of the game.
      *
-     * @see #stop()
+     * @see GameClock#stop()
      */
     public void stopCounter() {
-        this.stopAll = true;
-        this.stop();
-    }
-
-    /**
-     * Stops the game engine Timer.
-     */
-    public void stop() {
-        if (timer.isRunning()) {
-            timer.stop();
-        }
+        this.clock.stop();
     }
 
     /**
@@ -1288,6 +1760,8 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
      * <li>If the 'R' key is pressed:</li>
      * <li>If the M_BUTTON2 flag is set, it performs a specific action related to the game's mechanics.</li>
      * <li>Otherwise, it invokes either the squareUp or retouch method based on the mouse pointer position.</li>
+     * <li>If the 'H' key is pressed, it turns the mine probability hints on or off.</li>
+     * <li>If the 'S' key is pressed, it saves the replay of the last finished game.</li>
      * </ul>
      * Finally, it resets the mouse button flags and repaints the game screen.
      *
@@ -1300,11 +1774,27 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
                 this.newGame();
                 return;
             }
+            case KeyEvent.VK_S: {
+                this.saveReplay();
+                return;
+            }
+            case KeyEvent.VK_H: {
+                if (this.hints == null && this.engine.game() != null && this.engine.game().isHuge()) {
+                    logger.info("Hints are not available on huge boards");
+                    return;
+                }
+                this.hints = this.hints == null ? new MineProbability(new Solver(this.engine)) : null;
+                this.hintsStale = true;
+                this.draw(true);
+                return;
+            }
             case KeyEvent.VK_R: {
-                if (this.mButton2) {
-                    this.squareUp(this.mp.x, this.mp.y);
-                } else {
-                    this.retouch(this.mp.x, this.mp.y);
+                if (this.mp != null && !this.isBoardBusy()) {
+                    if (this.mButton2) {
+                        this.squareUp(this.mp.x, this.mp.y);
+                    } else {
+                        this.retouch(this.mp.x, this.mp.y);
+                    }
                 }
                 this.mButton1 = false;
                 this.mButton2 = false;
@@ -1406,8 +1896,8 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
         if (this.face == Smile.LOSE || this.face == Smile.WIN) {
             return;
         }
-        final int x2 = (x - JMine.getOffsetX()) / 16;
-        final int y2 = (y - JMine.getOffsetY()) / 16;
+        final int x2 = JMine.tileX(x);
+        final int y2 = this.tileY(y);
         if (this.mp == null) {
             this.mp = new Point(x2, y2);
         }
@@ -1429,34 +1919,30 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
      * @see #draw()
      */
     public void tilePress(final int x, final int y) {
-        if (x < 0 || y < 0 || x >= this.tiles.length || y >= this.tiles[0].length) {
+        if (!this.engine.isInside(x, y) || this.isBoardBusy()) {
             return;
         }
         if (this.mButton2) {
             // Middle mouse button pressed
+            this.recorder.record(Replay.PRESS, y * this.engine.width() + x);
             this.setFace(Smile.CLICK);
             this.mp = new Point(x, y);
             this.squareDown(x, y);
         } else if (this.mButton1) {
             // Left mouse button pressed
-            if (this.tiles[x][y].index == MineTile.HIDDEN) {
+            this.recorder.record(Replay.PRESS, y * this.engine.width() + x);
+            if (this.engine.tile(x, y).index() == MineTile.HIDDEN) {
                 this.touch(x, y, 0);
-            } else if (this.tiles[x][y].index == MineTile.QMARK) {
+            } else if (this.engine.tile(x, y).index() == MineTile.QMARK) {
                 this.touch(x, y, MineTile.QMARKP);
             }
             this.mp = new Point(x, y);
             this.setFace(Smile.CLICK);
         } else if (this.mButton3) {
             // Right mouse button pressed
-            if (this.tiles[x][y].index == MineTile.HIDDEN) {
-                this.setFlags(this.flags - 1);
-                this.touch(x, y, MineTile.FLAG);
-            } else if (this.tiles[x][y].index == MineTile.FLAG) {
-                this.touch(x, y, MineTile.QMARK);
-                this.setFlags(this.flags + 1);
-            } else if (this.tiles[x][y].index == MineTile.QMARK) {
-                this.touch(x, y, MineTile.HIDDEN);
-            }
+            this.recorder.record(Replay.FLAG, y * this.engine.width() + x);
+            this.engine.cycleMark(x, y);
+            this.setFlags(this.engine.flags());
         } else {
             // No mouse buttons recorded
             logger.info("Tried to press tile, but no buttons recorded!");
@@ -1482,12 +1968,12 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
      * @see #reveal(int, int)
      */
     public void tileRelease(final int x, final int y) {
-        if (x < 0 || y < 0 || x >= this.tiles.length || y >= this.tiles[0].length) {
+        if (!this.engine.isInside(x, y) || this.isBoardBusy()) {
             return;
         }
         if (this.mButton2) {
-            if (this.squareFlags(x, y) == this.tiles[x][y].number &&
-                    this.tiles[x][y].number == this.tiles[x][y].index) {
+            this.recorder.record(Replay.CHORD, y * this.engine.width() + x);
+            if (this.engine.canChord(x, y)) {
                 this.squareReveal(x, y);
             } else {
                 this.squareUp(x, y);
@@ -1497,6 +1983,7 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
             return;
         }
         if (this.mButton1 && !this.mBoth) {
+            this.recorder.record(Replay.RELEASE, y * this.engine.width() + x);
             this.reveal(x, y);
             if (this.face == Smile.CLICK) {
                 this.setFace(Smile.SMILE_STATE);
@@ -1527,16 +2014,18 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
             if (men == 256) {
                 this.showStatus("Loading options...");
                 this.mod.setGame(this.difficulty);
+                this.mod.setNoGuess(this.engine.isNoGuess());
                 this.mod.setModal(true);
                 this.mod.setVisible(true);
                 this.difficulty = this.mod.getGame(this.difficulty);
+                this.engine.setNoGuess(this.mod.getNoGuess(this.engine.isNoGuess()));
                 this.setFace(Smile.SMILE_STATE);
                 this.draw();
             }
             this.newGame();
         } else if (this.face != Smile.LOSE && this.face != Smile.WIN) {
-            x = (x - JMine.getOffsetX()) / 16;
-            y = (y - JMine.getOffsetY()) / 16;
+            x = JMine.tileX(x);
+            y = this.tileY(y);
             this.tileRelease(x, y);
         }
         switch (men) {
@@ -1620,12 +2109,12 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
             this.draw();
             return;
         }
-        final int xOffset = (x - JMine.getOffsetX()) / 16;
-        final int yOffset = (y - JMine.getOffsetY()) / 16;
+        final int xOffset = JMine.tileX(x);
+        final int yOffset = this.tileY(y);
         if (this.mp == null) {
             this.mp = new Point(xOffset, yOffset);
         }
-        if (this.face == Smile.LOSE || this.face == Smile.WIN) {
+        if (this.face == Smile.LOSE || this.face == Smile.WIN || this.isBoardBusy()) {
             return;
         }
         if (xOffset != this.mp.x || yOffset != this.mp.y) {
@@ -1650,8 +2139,8 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
      * @see #reveal(int, int)
      */
     public void squareReveal(final int x, final int y) {
-        this.reveal(x, y);
-        revealRecurse(x, y);
+        this.engine.squareReveal(x, y);
+        this.revealLater();
     }
 
     /**
@@ -1662,15 +2151,7 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
      * @see #retouch(int, int)
      */
     public void squareUp(final int x, final int y) {
-        this.retouch(x, y);
-        this.retouch(x - 1, y - 1);
-        this.retouch(x - 1, y);
-        this.retouch(x - 1, y + 1);
-        this.retouch(x, y + 1);
-        this.retouch(x + 1, y + 1);
-        this.retouch(x + 1, y);
-        this.retouch(x + 1, y - 1);
-        this.retouch(x, y - 1);
+        this.engine.squareUp(x, y);
     }
 
     /**
@@ -1682,9 +2163,7 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
      * @see #isFlag(int, int)
      */
     public int squareFlags(final int x, final int y) {
-        return this.isFlag(x, y) + this.isFlag(x - 1, y - 1) + this.isFlag(x - 1, y) +
-                this.isFlag(x - 1, y + 1) + this.isFlag(x, y + 1) + this.isFlag(x + 1, y + 1) +
-                this.isFlag(x + 1, y) + this.isFlag(x + 1, y - 1) + this.isFlag(x, y - 1);
+        return this.engine.squareFlags(x, y);
     }
 
     /**
@@ -1695,13 +2174,7 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
      * @return 1 if the tile is flagged, 0 otherwise.
      */
     public int isFlag(final int n, final int n2) {
-        if (n < 0 || n2 < 0 || n >= this.tiles.length || n2 >= this.tiles[0].length) {
-            return 0;
-        }
-        if (this.tiles[n][n2].index == MineTile.FLAG) {
-            return 1;
-        }
-        return 0;
+        return this.engine.isFlag(n, n2);
     }
 
     /**
@@ -1712,11 +2185,7 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
      * @see #repaint()
      */
     public void retouch(final int x, final int y) {
-        if (x < 0 || y < 0 || x >= this.tiles.length || y >= this.tiles[0].length) {
-            return;
-        }
-        this.paintMe.add(this.tiles[x][y]);
-        this.tiles[x][y].retouch();
+        this.engine.retouch(x, y);
     }
 
     /**
@@ -1727,13 +2196,7 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
      * @see #repaint()
      */
     public void touch(final int x, final int y) {
-        if (x < 0 || y < 0 || x >= this.tiles.length || y >= this.tiles[0].length) {
-            return;
-        }
-        if (!this.tiles[x][y].getRevealed()) {
-            this.paintMe.add(this.tiles[x][y]);
-            this.tiles[x][y].touch();
-        }
+        this.engine.touch(x, y);
     }
 
     /**
@@ -1744,15 +2207,7 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
      * @see #touch(int, int)
      */
     public void squareDown(final int x, final int y) {
-        this.touch(x, y);
-        this.touch(x - 1, y - 1);
-        this.touch(x - 1, y);
-        this.touch(x - 1, y + 1);
-        this.touch(x, y + 1);
-        this.touch(x + 1, y + 1);
-        this.touch(x + 1, y);
-        this.touch(x + 1, y - 1);
-        this.touch(x, y - 1);
+        this.engine.squareDown(x, y);
     }
 
     /**
@@ -1768,7 +2223,7 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
             return;
         }
         if (mouseEvent.getModifiersEx() == 0) {
-            if ((this.mButton1 || this.mButton2 || this.mButton3) && this.mp != null) {
+            if ((this.mButton1 || this.mButton2 || this.mButton3) && this.mp != null && !this.isBoardBusy()) {
                 this.squareUp(this.mp.x, this.mp.y);
             }
             this.mButton1 = false;
@@ -1799,6 +2254,16 @@ public class JMine extends JPanel implements MouseListener, MouseMotionListener,
         context.updateLoggers();
     }
 
+    /**
+     * The engine settings a replay may change.
+     *
+     * @param algorithm   the random number generator algorithm
+     * @param safeOpening whether mines are placed after the first click
+     * @param noGuess     whether only boards that can be won without guessing are dealt
+     */
+    private record Settings(String algorithm, boolean safeOpening, boolean noGuess) {
+    }
+
     /**
      * Represents different facial expressions for the smiley face in the Minesweeper game.
      */
@@ -0,0 +1,87 @@
+package dev.jcps;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of recently generated mine layouts, evicting the least recently used entry once full.
+ * <p>
+ * Layouts are keyed by everything that determines them: the board size, the number of mines, the seed,
+ * the random number generator algorithm and, for safe-opening games, the first clicked cell. Restarting
+ * a seed that was played recently then reuses the layout instead of generating it again.
+ * </p>
+ *
+ * @since 1.1
+ */
+final class LayoutCache {
+    /**
+     * The number of layouts kept by default.
+     */
+    static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * The cached layouts in access order.
+     */
+    private final LinkedHashMap<Key, int[]> layouts;
+
+    /**
+     * Constructs a cache holding up to {@link #DEFAULT_CAPACITY} layouts.
+     */
+    LayoutCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a cache.
+     *
+     * @param capacity the maximum number of layouts to keep
+     */
+    LayoutCache(final int capacity) {
+        this.layouts = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, int[]> eldest) {
+                return this.size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns a cached layout.
+     *
+     * @param key the layout key
+     * @return the mine cells, or {@code null} if the layout is not cached
+     */
+    int[] get(final Key key) {
+        return this.layouts.get(key);
+    }
+
+    /**
+     * Adds a layout to the cache. The array must not be modified afterwards.
+     *
+     * @param key    the layout key
+     * @param layout the mine cells
+     */
+    void put(final Key key, final int[] layout) {
+        this.layouts.put(key, layout);
+    }
+
+    /**
+     * Removes all cached layouts.
+     */
+    void clear() {
+        this.layouts.clear();
+    }
+
+    /**
+     * Identifies a layout.
+     *
+     * @param width     the width of the board
+     * @param height    the height of the board
+     * @param mines     the number of mines
+     * @param seed      the seed of the random number generator
+     * @param algorithm the random number generator algorithm
+     * @param firstCell the first clicked cell for safe-opening layouts, or -1
+     */
+    record Key(int width, int height, int mines, long seed, String algorithm, int firstCell) {
+    }
+}
@@ -0,0 +1,213 @@
+package dev.jcps;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Keeps a few boards with their mines already placed for each recently played board size, so that a new
+ * game starts without generating anything.
+ * <p>
+ * Boards are laid out on a single background thread from fresh seeds, exactly as {@link MineEngine} lays
+ * out a board from a seed, and handed over through a bounded queue per board size and mine count. Taking
+ * a board is constant time whatever the size of the board; each board taken is replaced in the
+ * background. Boards the engine is done with are given back and reused, so a steady stream of games
+ * allocates nothing.
+ * </p>
+ * <p>
+ * Only the {@value #MAX_GAMES} most recently used board sizes are kept ready.
+ * </p>
+ *
+ * @since 1.1
+ */
+final class LayoutPool {
+    /**
+     * The number of boards kept ready per board size by default.
+     */
+    static final int DEFAULT_SIZE = 3;
+    /**
+     * The number of board sizes with boards kept ready.
+     */
+    static final int MAX_GAMES = 4;
+
+    /**
+     * The number of boards kept ready per board size.
+     */
+    private final int size;
+    /**
+     * Creates the seeded random number generator used to lay out each board.
+     */
+    private final RandomGeneratorFactory<RandomGenerator> randomFactory;
+    /**
+     * Chooses the mine cells of the boards.
+     */
+    private final MineLayoutGenerator layoutGenerator;
+    /**
+     * Seeds of the boards, only used on the producer thread.
+     */
+    private final SplittableRandom seeds;
+    /**
+     * The background thread laying out boards.
+     */
+    private final ExecutorService producer;
+    /**
+     * The boards ready per board size, in least recently used order. Guarded by the map itself.
+     */
+    private final LinkedHashMap<Key, Queue> queues;
+    /**
+     * Boards given back for reuse. Guarded by {@link #queues}.
+     */
+    private final ArrayDeque<MineBoard> spares;
+
+    /**
+     * Constructs a pool and starts its background thread.
+     *
+     * @param size            the number of boards kept ready per board size
+     * @param randomFactory   creates the seeded random number generator of each board
+     * @param layoutGenerator chooses the mine cells of the boards
+     * @param seed            the seed of the stream of board seeds
+     */
+    LayoutPool(final int size, final @NotNull RandomGeneratorFactory<RandomGenerator> randomFactory,
+               final @NotNull MineLayoutGenerator layoutGenerator, final long seed) {
+        this.size = size;
+        this.randomFactory = randomFactory;
+        this.layoutGenerator = layoutGenerator;
+        this.seeds = new SplittableRandom(seed);
+        this.producer = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "JMine layout pool");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        this.queues = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, Queue> eldest) {
+                return this.size() > MAX_GAMES;
+            }
+        };
+        this.spares = new ArrayDeque<>(size);
+    }
+
+    /**
+     * Takes a ready board and starts laying out its replacement.
+     *
+     * @param game the board size and mine count
+     * @return a board with its mines placed and every tile hidden, or {@code null} if none is ready yet
+     */
+    @Nullable Ready take(final @NotNull Game game) {
+        final Key key = new Key(game.width(), game.height(), game.mines());
+        final Ready ready;
+        final int missing;
+        synchronized (this.queues) {
+            final Queue queue = this.queues.computeIfAbsent(key, k -> new Queue(this.size));
+            ready = queue.boards.poll();
+            missing = this.size - queue.boards.size() - queue.pending;
+            queue.pending += missing;
+            for (int i = 0; i < missing; i++) {
+                this.submit(key, queue);
+            }
+        }
+        return ready;
+    }
+
+    private void submit(final Key key, final Queue queue) {
+        try {
+            this.producer.execute(() -> this.produce(key, queue));
+        } catch (final RejectedExecutionException e) {
+            queue.pending--;
+        }
+    }
+
+    /**
+     * Background task laying out one board.
+     */
+    private void produce(final Key key, final Queue queue) {
+        Ready ready = null;
+        try {
+            MineBoard board = null;
+            synchronized (this.queues) {
+                for (final MineBoard spare : this.spares) {
+                    if (spare.width == key.width && spare.height == key.height) {
+                        board = spare;
+                        this.spares.remove(spare);
+                        break;
+                    }
+                }
+            }
+            if (board == null) {
+                board = new MineBoard(key.width, key.height);
+            } else {
+                board.clear();
+            }
+            final long seed = this.seeds.nextLong();
+            final int[] layout = this.layoutGenerator.generate(key.width, key.height, key.mines,
+                    MineLayoutGenerator.NO_CELLS, this.randomFactory.create(seed));
+            board.placeMines(layout);
+            ready = new Ready(seed, board);
+        } finally {
+            synchronized (this.queues) {
+                queue.pending--;
+                if (ready != null) {
+                    queue.boards.add(ready);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gives back a board that is no longer used, to be cleared and reused in the background. Huge boards are
+     * dropped rather than kept.
+     *
+     * @param board the board
+     */
+    void recycle(final @NotNull MineBoard board) {
+        synchronized (this.queues) {
+            if (this.spares.size() < this.size && board.size() <= Game.HUGE_TILES) {
+                this.spares.add(board);
+            }
+        }
+    }
+
+    /**
+     * Stops the background thread. Boards being laid out are finished and dropped.
+     */
+    void shutdown() {
+        this.producer.shutdown();
+    }
+
+    /**
+     * A board ready to be played.
+     *
+     * @param seed  the seed the board was laid out from
+     * @param board the board, with its mines placed and every tile hidden
+     */
+    record Ready(long seed, MineBoard board) {
+    }
+
+    /**
+     * A board size and mine count.
+     */
+    private record Key(int width, int height, int mines) {
+    }
+
+    /**
+     * The boards ready for one key and the number still being laid out.
+     */
+    private static final class Queue {
+        final ArrayDeque<Ready> boards;
+        int pending;
+
+        Queue(final int size) {
+            this.boards = new ArrayDeque<>(size);
+        }
+    }
+}
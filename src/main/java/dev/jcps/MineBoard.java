@@ -0,0 +1,620 @@
+package dev.jcps;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Packed storage for the tiles of a minefield.
+ * <p>
+ * Each tile takes one byte in {@link #cells}: the low nibble holds the display index (one of the
+ * {@link MineTile} constants or a number from 0 to 8), and the high nibble holds the number of adjacent
+ * mines, or {@link #MINE_COUNT} if the tile is a mine. Whether a tile has been revealed is kept in a
+ * separate bitplane, one bit per tile. Tiles are stored row by row, so the tile at {@code (x, y)} is
+ * found at {@code y * width + x}.
+ * </p>
+ * <p>
+ * {@link MineTile} offers an object view of a single tile for code that prefers it.
+ * </p>
+ * <p>
+ * The counts of a whole board are computed bit-parallel: the mines of a row are gathered into a bitboard,
+ * one bit per tile, and the eight neighbour bitboards of a row, the rows above and below it and each row
+ * shifted by one tile to either side, are summed with bitwise adders into four bitplanes holding the count
+ * of 64 tiles at once. Cells are read and written eight at a time as {@code long}s.
+ * </p>
+ *
+ * @since 1.1
+ */
+final class MineBoard {
+    /**
+     * Mask selecting the display index from a cell.
+     */
+    static final int INDEX_MASK = 0x0F;
+    /**
+     * Shift of the adjacent mine count within a cell.
+     */
+    static final int COUNT_SHIFT = 4;
+    /**
+     * Value of the count nibble that marks a mine.
+     */
+    static final int MINE_COUNT = 0x0F;
+    /**
+     * The low nibble of each byte of a {@code long}.
+     */
+    private static final long LOW_NIBBLES = 0x0F0F0F0F0F0F0F0FL;
+    /**
+     * The high nibble of each byte of a {@code long}.
+     */
+    private static final long HIGH_NIBBLES = 0xF0F0F0F0F0F0F0F0L;
+    /**
+     * All but the top bit of each byte of a {@code long}.
+     */
+    private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+    /**
+     * Views the cells as little-endian {@code long}s, so the cell at the lowest index is the lowest byte.
+     */
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class,
+            ByteOrder.LITTLE_ENDIAN);
+    /**
+     * For each byte value, a {@code long} with the lowest bit of byte {@code i} set to bit {@code i} of the
+     * value.
+     */
+    private static final long[] SPREAD = new long[256];
+
+    static {
+        for (int bits = 0; bits < 256; bits++) {
+            long spread = 0L;
+            for (int i = 0; i < 8; i++) {
+                spread |= (long) (bits >>> i & 1) << (i << 3);
+            }
+            SPREAD[bits] = spread;
+        }
+    }
+
+    /**
+     * Width of the board in tiles.
+     */
+    final int width;
+    /**
+     * Height of the board in tiles.
+     */
+    final int height;
+    /**
+     * One byte per tile holding the display index and the adjacent mine count.
+     */
+    final byte[] cells;
+    /**
+     * One bit per tile, set once the tile has been revealed.
+     */
+    final long[] revealed;
+    /**
+     * The neighbours of each cell.
+     */
+    final Topology topology;
+
+    /**
+     * Constructs an empty board with every tile hidden.
+     *
+     * @param width  the width of the board
+     * @param height the height of the board
+     */
+    MineBoard(final int width, final int height) {
+        this.width = width;
+        this.height = height;
+        this.cells = new byte[width * height];
+        this.revealed = new long[(this.cells.length + 63) >>> 6];
+        this.topology = new Topology(width, height);
+        this.clear();
+    }
+
+    /**
+     * Removes all mines and hides every tile.
+     */
+    void clear() {
+        Arrays.fill(this.cells, (byte) MineTile.HIDDEN);
+        Arrays.fill(this.revealed, 0L);
+    }
+
+    /**
+     * Returns the number of tiles on the board.
+     *
+     * @return width times height
+     */
+    int size() {
+        return this.cells.length;
+    }
+
+    /**
+     * Returns the cell number of a tile.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     * @return the cell number
+     */
+    int cell(final int x, final int y) {
+        return y * this.width + x;
+    }
+
+    /**
+     * Returns the display index of a cell.
+     *
+     * @param cell the cell number
+     * @return the display index
+     */
+    int index(final int cell) {
+        return this.cells[cell] & INDEX_MASK;
+    }
+
+    /**
+     * Sets the display index of a cell.
+     *
+     * @param cell  the cell number
+     * @param index the display index
+     */
+    void setIndex(final int cell, final int index) {
+        this.cells[cell] = (byte) ((this.cells[cell] & ~INDEX_MASK) | index);
+    }
+
+    /**
+     * Returns the raw adjacent mine count nibble of a cell.
+     *
+     * @param cell the cell number
+     * @return the count, or {@link #MINE_COUNT} for a mine
+     */
+    int count(final int cell) {
+        return (this.cells[cell] >>> COUNT_SHIFT) & 0x0F;
+    }
+
+    /**
+     * Returns the number of mines adjacent to a cell.
+     *
+     * @param cell the cell number
+     * @return the number of adjacent mines, or -1 if the cell is a mine
+     */
+    int number(final int cell) {
+        final int count = this.count(cell);
+        return count == MINE_COUNT ? -1 : count;
+    }
+
+    /**
+     * Sets the adjacent mine count nibble of a cell.
+     *
+     * @param cell  the cell number
+     * @param count the count, or {@link #MINE_COUNT} for a mine
+     */
+    void setCount(final int cell, final int count) {
+        this.cells[cell] = (byte) ((this.cells[cell] & INDEX_MASK) | (count << COUNT_SHIFT));
+    }
+
+    /**
+     * Checks if a cell contains a mine.
+     *
+     * @param cell the cell number
+     * @return {@code true} if the cell is a mine
+     */
+    boolean isMine(final int cell) {
+        return (this.cells[cell] & 0xF0) == MINE_COUNT << COUNT_SHIFT;
+    }
+
+    /**
+     * Checks if a cell has been revealed.
+     *
+     * @param cell the cell number
+     * @return {@code true} if the cell has been revealed
+     */
+    boolean isRevealed(final int cell) {
+        return (this.revealed[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Sets the revealed status of a cell.
+     *
+     * @param cell   the cell number
+     * @param status {@code true} to mark the cell as revealed
+     */
+    void setRevealed(final int cell, final boolean status) {
+        if (status) {
+            this.revealed[cell >>> 6] |= 1L << cell;
+        } else {
+            this.revealed[cell >>> 6] &= ~(1L << cell);
+        }
+    }
+
+    /**
+     * Shows a hidden cell as pressed down.
+     *
+     * @param cell the cell number
+     */
+    void press(final int cell) {
+        if (this.isRevealed(cell)) {
+            return;
+        }
+        final int index = this.index(cell);
+        if (index == MineTile.HIDDEN) {
+            this.setIndex(cell, 0);
+        } else if (index == MineTile.QMARK) {
+            this.setIndex(cell, MineTile.QMARKP);
+        }
+    }
+
+    /**
+     * Restores a pressed cell to the way it looked before it was pressed.
+     *
+     * @param cell the cell number
+     */
+    void release(final int cell) {
+        if (this.isRevealed(cell)) {
+            return;
+        }
+        final int index = this.index(cell);
+        if (index == 0) {
+            this.setIndex(cell, MineTile.HIDDEN);
+        } else if (index == MineTile.QMARKP) {
+            this.setIndex(cell, MineTile.QMARK);
+        }
+    }
+
+    /**
+     * Turns a cell into a mine, incrementing the counts of its neighbours.
+     *
+     * @param cell the cell number, which must not be a mine
+     */
+    void addMine(final int cell) {
+        this.setCount(cell, MINE_COUNT);
+        this.adjustNeighbours(cell, 1);
+    }
+
+    /**
+     * Removes the mine from a cell, decrementing the counts of its neighbours and counting the mines
+     * around the cell itself.
+     *
+     * @param cell the cell number, which must be a mine
+     */
+    void removeMine(final int cell) {
+        this.setCount(cell, this.countMines(cell));
+        this.adjustNeighbours(cell, -1);
+    }
+
+    /**
+     * Adds a value to the counts of the non-mine neighbours of a cell.
+     *
+     * @param cell  the cell number
+     * @param delta the value to add
+     */
+    private void adjustNeighbours(final int cell, final int delta) {
+        final Topology t = this.topology;
+        final int k = t.kind(cell);
+        final int step = delta << COUNT_SHIFT;
+        for (int i = t.start[k]; i < t.start[k + 1]; i++) {
+            final int n = cell + t.offsets[i];
+            if (!this.isMine(n)) {
+                this.cells[n] += (byte) step;
+            }
+        }
+    }
+
+    /**
+     * Turns cells into mines and updates the counts of their neighbours. Few mines are added one by one;
+     * for more, the counts of the whole board are recomputed once they are all placed.
+     *
+     * @param mines the cell numbers, none of which may be a mine yet
+     */
+    void placeMines(final int[] mines) {
+        if (mines.length <= this.cells.length >>> 5) {
+            for (final int cell : mines) {
+                this.addMine(cell);
+            }
+            return;
+        }
+        for (final int cell : mines) {
+            this.setCount(cell, MINE_COUNT);
+        }
+        this.computeNumbers();
+    }
+
+    /**
+     * Turns the cells of a bit set into mines and updates the counts of their neighbours, as
+     * {@link #placeMines(int[])} does for a list of cells.
+     *
+     * @param mines the mine cells, bit {@code cell & 63} of word {@code cell >>> 6} being set for a mine,
+     *              none of which may be a mine yet
+     */
+    void placeMines(final long[] mines) {
+        int count = 0;
+        for (final long word : mines) {
+            count += Long.bitCount(word);
+        }
+        final boolean few = count <= this.cells.length >>> 5;
+        for (int w = 0; w < mines.length; w++) {
+            for (long word = mines[w]; word != 0; word &= word - 1) {
+                final int cell = w << 6 | Long.numberOfTrailingZeros(word);
+                if (few) {
+                    this.addMine(cell);
+                } else {
+                    this.setCount(cell, MINE_COUNT);
+                }
+            }
+        }
+        if (!few) {
+            this.computeNumbers();
+        }
+    }
+
+    /**
+     * Recomputes the adjacent mine count of every cell that is not a mine, 64 tiles at a time.
+     */
+    void computeNumbers() {
+        final int words = (this.width + 63) >>> 6;
+        long[] above = new long[words];
+        long[] row = new long[words];
+        long[] below = new long[words];
+        if (this.height > 0) {
+            this.selectRow(0, MINE_COUNT, row);
+        }
+        for (int y = 0; y < this.height; y++) {
+            if (y + 1 < this.height) {
+                this.selectRow(y + 1, MINE_COUNT, below);
+            } else {
+                Arrays.fill(below, 0L);
+            }
+            this.countRow(y, above, row, below);
+            final long[] spare = above;
+            above = row;
+            row = below;
+            below = spare;
+        }
+    }
+
+    /**
+     * Gathers the tiles of a row with a given count nibble into a bitboard, bit {@code x % 64} of word
+     * {@code x / 64} set if the tile at {@code x} matches.
+     *
+     * @param y     the row
+     * @param count the count nibble to look for, {@link #MINE_COUNT} for the mines
+     * @param bits  receives the bitboard
+     */
+    private void selectRow(final int y, final int count, final long[] bits) {
+        Arrays.fill(bits, 0L);
+        final int base = y * this.width;
+        final long pattern = 0x0101010101010101L * (count << COUNT_SHIFT);
+        int x = 0;
+        for (; x + 8 <= this.width; x += 8) {
+            // clear the high nibbles that match, then find the bytes left at zero
+            final long flipped = ((long) LONGS.get(this.cells, base + x) & HIGH_NIBBLES) ^ pattern;
+            final long zero = ~((flipped & LOW_BITS) + LOW_BITS | flipped | LOW_BITS);
+            // move the top bit of byte i to bit i of the top byte
+            bits[x >>> 6] |= ((zero >>> 7) * 0x0102040810204080L >>> 56) << (x & 63);
+        }
+        for (; x < this.width; x++) {
+            if (this.count(base + x) == count) {
+                bits[x >>> 6] |= 1L << x;
+            }
+        }
+    }
+
+    /**
+     * Writes the counts of a row from the mine bitboards of the row and the rows around it.
+     *
+     * @param y     the row
+     * @param above the mines of the row above, all zero for the first row
+     * @param row   the mines of the row
+     * @param below the mines of the row below, all zero for the last row
+     */
+    private void countRow(final int y, final long[] above, final long[] row, final long[] below) {
+        final int base = y * this.width;
+        final int words = row.length;
+        for (int i = 0; i < words; i++) {
+            final long aw = west(above, i);
+            final long ac = above[i];
+            final long ae = east(above, i);
+            final long rw = west(row, i);
+            final long re = east(row, i);
+            final long bw = west(below, i);
+            final long bc = below[i];
+            final long be = east(below, i);
+            // two full adders and a half adder take the eight inputs to three ones and three twos
+            final long s1 = aw ^ ac ^ ae;
+            final long c1 = aw & ac | ae & (aw ^ ac);
+            final long s2 = rw ^ re ^ bw;
+            final long c2 = rw & re | bw & (rw ^ re);
+            final long s3 = bc ^ be;
+            final long c3 = bc & be;
+            // the ones add up to bit 0 and a fourth two, the four twos to bit 1 and up to two fours
+            final long p0 = s1 ^ s2 ^ s3;
+            final long c4 = s1 & s2 | s3 & (s1 ^ s2);
+            final long t = c1 ^ c2 ^ c3;
+            final long c5 = c1 & c2 | c3 & (c1 ^ c2);
+            final long p1 = t ^ c4;
+            final long c6 = t & c4;
+            final long p2 = c5 ^ c6;
+            final long p3 = c5 & c6;
+            final long mines = row[i];
+            final int end = Math.min(64, this.width - (i << 6));
+            int x = 0;
+            for (; x + 8 <= end; x += 8) {
+                final long counts = SPREAD[(int) (p0 >>> x) & 0xFF]
+                        | SPREAD[(int) (p1 >>> x) & 0xFF] << 1
+                        | SPREAD[(int) (p2 >>> x) & 0xFF] << 2
+                        | SPREAD[(int) (p3 >>> x) & 0xFF] << 3;
+                final long mineBytes = SPREAD[(int) (mines >>> x) & 0xFF] * 0xFF;
+                final int position = base + (i << 6) + x;
+                final long cells = (long) LONGS.get(this.cells, position);
+                LONGS.set(this.cells, position, cells & (LOW_NIBBLES | mineBytes) | counts << COUNT_SHIFT & ~mineBytes);
+            }
+            for (; x < end; x++) {
+                if ((mines >>> x & 1) == 0) {
+                    this.setCount(base + (i << 6) + x, (int) ((p0 >>> x & 1) | (p1 >>> x & 1) << 1
+                            | (p2 >>> x & 1) << 2 | (p3 >>> x & 1) << 3));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns word {@code i} of a bitboard moved one tile east, so that each bit tells if the tile to its
+     * west is set.
+     */
+    private static long west(final long[] bits, final int i) {
+        return bits[i] << 1 | (i > 0 ? bits[i - 1] >>> 63 : 0L);
+    }
+
+    /**
+     * Returns word {@code i} of a bitboard moved one tile west, so that each bit tells if the tile to its
+     * east is set.
+     */
+    private static long east(final long[] bits, final int i) {
+        return bits[i] >>> 1 | (i + 1 < bits.length ? bits[i + 1] << 63 : 0L);
+    }
+
+    /**
+     * Computes the 3BV of the board: the least number of clicks that reveal every safe tile without
+     * chording. Each opening, a connected region of cells without adjacent mines together with its
+     * border, takes one click, and every other safe cell takes one click of its own.
+     * <p>
+     * The board is read a row at a time as bitboards. The cells an opening reveals are the zero cells
+     * and their neighbours, so the safe cells outside every opening are counted from the zero cells
+     * spread by one tile in each direction. The openings themselves are counted by joining the runs of
+     * zero cells of each row to the runs they touch in the row above.
+     * </p>
+     *
+     * @return the 3BV
+     */
+    int bbbv() {
+        final int words = (this.width + 63) >>> 6;
+        final long lastWord = (this.width & 63) == 0 ? -1L : (1L << this.width) - 1;
+        long[] above = new long[words];
+        long[] row = new long[words];
+        long[] below = new long[words];
+        final long[] near = new long[words];
+        final long[] mines = new long[words];
+        final IntList parent = new IntList(64);
+        IntList runs = new IntList(64);
+        IntList previous = new IntList(64);
+        long mineCount = 0L;
+        long covered = 0L;
+        int joined = 0;
+        if (this.height > 0) {
+            this.selectRow(0, 0, row);
+        }
+        for (int y = 0; y < this.height; y++) {
+            if (y + 1 < this.height) {
+                this.selectRow(y + 1, 0, below);
+            } else {
+                Arrays.fill(below, 0L);
+            }
+            this.selectRow(y, MINE_COUNT, mines);
+            for (int i = 0; i < words; i++) {
+                near[i] = above[i] | row[i] | below[i];
+            }
+            for (int i = 0; i < words; i++) {
+                final long spread = near[i] | west(near, i) | east(near, i);
+                covered += Long.bitCount(i == words - 1 ? spread & lastWord : spread);
+                mineCount += Long.bitCount(mines[i]);
+            }
+            // runs are stored as start, end and label; a run touches the runs above within one tile
+            runs.clear();
+            int p = 0;
+            int start = nextSet(row, 0, this.width);
+            while (start < this.width) {
+                final int end = nextClear(row, start, this.width) - 1;
+                final int label = parent.size();
+                parent.add(label);
+                runs.add(start);
+                runs.add(end);
+                runs.add(label);
+                while (p < previous.size() && previous.get(p + 1) < start - 1) {
+                    p += 3;
+                }
+                for (int q = p; q < previous.size() && previous.get(q) <= end + 1; q += 3) {
+                    if (union(parent, label, previous.get(q + 2))) {
+                        joined++;
+                    }
+                }
+                start = nextSet(row, end + 2, this.width);
+            }
+            final IntList spare = previous;
+            previous = runs;
+            runs = spare;
+            final long[] rows = above;
+            above = row;
+            row = below;
+            below = rows;
+        }
+        return (int) (parent.size() - joined + (long) this.size() - mineCount - covered);
+    }
+
+    /**
+     * Joins the sets of two labels.
+     *
+     * @return {@code true} if they were in different sets
+     */
+    private static boolean union(final IntList parent, final int a, final int b) {
+        final int rootA = find(parent, a);
+        final int rootB = find(parent, b);
+        if (rootA == rootB) {
+            return false;
+        }
+        parent.set(rootA, rootB);
+        return true;
+    }
+
+    private static int find(final IntList parent, int label) {
+        while (parent.get(label) != label) {
+            parent.set(label, parent.get(parent.get(label)));
+            label = parent.get(label);
+        }
+        return label;
+    }
+
+    /**
+     * Returns the first set bit at or after {@code from}, or {@code limit} if there is none before it.
+     */
+    private static int nextSet(final long[] bits, final int from, final int limit) {
+        int i = from >>> 6;
+        if (i >= bits.length) {
+            return limit;
+        }
+        long word = bits[i] & -1L << from;
+        while (word == 0) {
+            if (++i == bits.length) {
+                return limit;
+            }
+            word = bits[i];
+        }
+        return Math.min((i << 6) + Long.numberOfTrailingZeros(word), limit);
+    }
+
+    /**
+     * Returns the first clear bit at or after {@code from}, or {@code limit} if there is none before it.
+     */
+    private static int nextClear(final long[] bits, final int from, final int limit) {
+        int i = from >>> 6;
+        long word = ~bits[i] & -1L << from;
+        while (word == 0) {
+            if (++i == bits.length) {
+                return limit;
+            }
+            word = ~bits[i];
+        }
+        return Math.min((i << 6) + Long.numberOfTrailingZeros(word), limit);
+    }
+
+    /**
+     * Counts the mines around a cell.
+     *
+     * @param cell the cell number
+     * @return the number of adjacent mines
+     */
+    int countMines(final int cell) {
+        final Topology t = this.topology;
+        final int k = t.kind(cell);
+        int mines = 0;
+        for (int i = t.start[k]; i < t.start[k + 1]; i++) {
+            if (this.isMine(cell + t.offsets[i])) {
+                mines++;
+            }
+        }
+        return mines;
+    }
+}
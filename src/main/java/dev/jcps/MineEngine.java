@@ -0,0 +1,1175 @@
+package dev.jcps;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * The MineEngine class holds the board state and the rules of a Minesweeper game.
+ * <p>
+ * It has no dependency on AWT or Swing, so it can be created and played on a headless JVM, for example
+ * to run large numbers of simulated games. {@link JMine} is a view over an engine: it forwards user input
+ * to the engine and repaints the tiles reported through {@link Listener}.
+ * </p>
+ * <p>
+ * The rules match the classic game: the first revealed tile is never a mine, revealing a tile with no
+ * adjacent mines cascades to its neighbours, and the game is won once only mines remain hidden.
+ * </p>
+ * <p>
+ * Every board is generated from a 64-bit seed, so the same game, seed and random number generator
+ * algorithm always give the same layout. Recently generated layouts are cached.
+ * </p>
+ * <p>
+ * Cascades are flood filled breadth first with explicit work lists, so the call depth stays constant and
+ * the lists only hold the edge of the region being opened, however large the region is. All tiles changed
+ * by one call are reported to the listener as a single batch. On huge boards a cascade can be opened in
+ * slices, see {@link #setRevealSlice(int)}.
+ * </p>
+ *
+ * @since 1.1
+ */
+public class MineEngine {
+    /**
+     * A new board on which no tile has been revealed yet.
+     */
+    public static final int READY = 0;
+    /**
+     * A game in progress.
+     */
+    public static final int PLAYING = 1;
+    /**
+     * A game that has been won.
+     */
+    public static final int WON = 2;
+    /**
+     * A game that has been lost.
+     */
+    public static final int LOST = 3;
+
+    private static final Logger logger = LoggerFactory.getLogger(MineEngine.class);
+
+    /**
+     * Listener used when nobody is observing the engine.
+     */
+    private static final Listener NO_LISTENER = new Listener() {
+    };
+
+    /**
+     * The random number generator algorithm used when none is given.
+     */
+    public static final String DEFAULT_RANDOM = "L64X128MixRandom";
+
+    /**
+     * The most changed cells reported one by one in a batch. Larger batches, such as the end of a game on a
+     * huge board, are reported as a change of the whole board.
+     */
+    private static final int MAX_CHANGED = 1 << 14;
+
+    /**
+     * Source of seeds for games started without one.
+     */
+    private final RandomGenerator seeds;
+
+    /**
+     * Creates the seeded random number generator used to lay out each board.
+     */
+    private RandomGeneratorFactory<RandomGenerator> randomFactory;
+
+    /**
+     * Recently generated layouts.
+     */
+    private final LayoutCache layoutCache;
+
+    /**
+     * The seed of the current board.
+     */
+    private long seed;
+
+    /**
+     * Chooses the mine cells of new boards.
+     */
+    private MineLayoutGenerator layoutGenerator;
+
+    /**
+     * Receives tile and game state changes.
+     */
+    private Listener listener;
+
+    /**
+     * The game being played.
+     */
+    private Game game;
+
+    /**
+     * Cells changed since the listener was last notified.
+     */
+    private final IntList changed;
+
+    /**
+     * Set when more than {@link #MAX_CHANGED} cells changed since the listener was last notified.
+     */
+    private boolean allChanged;
+
+    /**
+     * Zero cells whose neighbours still have to be revealed, from {@link #head} on.
+     */
+    private IntList work;
+
+    /**
+     * Zero cells found while revealing the neighbours of {@link #work}, to be expanded next.
+     */
+    private IntList next;
+
+    /**
+     * The next cell of {@link #work} to expand.
+     */
+    private int head;
+
+    /**
+     * Cells still to be revealed by a chord, from {@link #startHead} on, each once the cascade opened by the
+     * one before has been filled.
+     */
+    private final IntList starts;
+
+    /**
+     * The next cell of {@link #starts} to reveal.
+     */
+    private int startHead;
+
+    /**
+     * The most zero cells expanded by one call before it returns, or 0 to always finish a cascade.
+     */
+    private int revealSlice;
+
+    /**
+     * The packed tiles of the board.
+     */
+    private MineBoard board;
+
+    /**
+     * Width of the board in tiles.
+     */
+    private int width;
+
+    /**
+     * Height of the board in tiles.
+     */
+    private int height;
+
+    /**
+     * The number of tiles that have not been revealed.
+     */
+    private int hidden;
+
+    /**
+     * The total number of mines on the board.
+     */
+    private int mines;
+
+    /**
+     * The number of mines minus the number of flags placed.
+     */
+    private int flags;
+
+    /**
+     * The current game state, one of {@link #READY}, {@link #PLAYING}, {@link #WON} or {@link #LOST}.
+     */
+    private int state;
+
+    /**
+     * If set, mines are only placed once the first tile is revealed, around it.
+     */
+    private boolean safeOpening;
+
+    /**
+     * Finds boards that can be won without guessing, or {@code null} if any board may be dealt.
+     */
+    private NoGuessGenerator noGuess;
+
+    /**
+     * Boards laid out in the background for games started without a seed, or {@code null}.
+     */
+    private LayoutPool layoutPool;
+
+    /**
+     * The number of boards kept ready per board size by the layout pool.
+     */
+    private int layoutPoolSize;
+
+    /**
+     * If set, the current game is a no-guess game.
+     */
+    private boolean guessFree;
+
+    /**
+     * If set, the mines of the current game are placed around the first revealed tile.
+     */
+    private boolean openSafely;
+
+    /**
+     * If set, the current game was started from a given seed rather than a fresh one.
+     */
+    private boolean seeded;
+
+    /**
+     * The number of games started, so observers can tell that the board was replaced.
+     */
+    private int generation;
+
+    /**
+     * Constructs a new MineEngine that draws the seeds of unseeded games from an unseeded
+     * {@value #DEFAULT_RANDOM} random number generator.
+     */
+    public MineEngine() {
+        this(RandomGenerator.of(DEFAULT_RANDOM));
+    }
+
+    /**
+     * Constructs a new MineEngine.
+     *
+     * @param seeds the random number generator supplying the seeds of games started without one
+     */
+    public MineEngine(final @NotNull RandomGenerator seeds) {
+        this.seeds = seeds;
+        this.randomFactory = RandomGeneratorFactory.of(DEFAULT_RANDOM);
+        this.layoutCache = new LayoutCache();
+        this.layoutGenerator = new UniformLayoutGenerator();
+        this.listener = NO_LISTENER;
+        this.state = READY;
+        this.changed = new IntList(64);
+        this.work = new IntList(64);
+        this.next = new IntList(64);
+        this.starts = new IntList(8);
+    }
+
+    /**
+     * Sets the listener notified of tile and game state changes.
+     *
+     * @param listener the listener, or {@code null} to remove it
+     */
+    public void setListener(final Listener listener) {
+        this.listener = listener == null ? NO_LISTENER : listener;
+    }
+
+    /**
+     * Sets the random number generator algorithm used to lay out the mines of the next games, for example
+     * {@code SplittableRandom} or {@code L64X128MixRandom}.
+     *
+     * @param algorithm the name of a {@link RandomGeneratorFactory} algorithm
+     * @throws IllegalArgumentException if the algorithm is unknown
+     */
+    public void setRandomAlgorithm(final @NotNull String algorithm) {
+        this.randomFactory = RandomGeneratorFactory.of(algorithm);
+        this.layoutCache.clear();
+        this.resetNoGuess();
+        this.resetLayoutPool();
+    }
+
+    /**
+     * Sets the generator that chooses the mine cells of the next games.
+     *
+     * @param layoutGenerator the layout generator to use
+     */
+    public void setLayoutGenerator(final @NotNull MineLayoutGenerator layoutGenerator) {
+        this.layoutGenerator = layoutGenerator;
+        this.layoutCache.clear();
+        this.resetNoGuess();
+        this.resetLayoutPool();
+    }
+
+    /**
+     * Chooses when mines are placed. By default, mines are placed by {@link #newGame(Game)} and a mine
+     * under the first click is moved away. In safe-opening mode, mines are placed when the first tile is
+     * revealed, never on that tile or its neighbours, so the first click always opens an area.
+     * <p>
+     * The setting applies from the next new game.
+     * </p>
+     *
+     * @param safeOpening {@code true} to place mines after the first click
+     */
+    public void setSafeOpening(final boolean safeOpening) {
+        this.safeOpening = safeOpening;
+    }
+
+    /**
+     * Returns whether mines are placed after the first click.
+     *
+     * @return {@code true} in safe-opening mode
+     * @see #setSafeOpening(boolean)
+     */
+    public boolean isSafeOpening() {
+        return this.safeOpening;
+    }
+
+    /**
+     * Chooses whether only boards that can be won without guessing are dealt. Like safe-opening games,
+     * no-guess games place their mines when the first tile is revealed, never on that tile or its
+     * neighbours, and then keep searching seeds until a solver wins the board from that tile by deduction
+     * alone. Boards for the cells the player opens with are prepared in the background, so the first
+     * click is usually answered at once.
+     * <p>
+     * A game started with a given seed searches the candidates derived from that seed, so it still always
+     * gives the same board for the same first click. Either way, {@link #seed()} returns the seed the board
+     * was generated from once the first tile is revealed.
+     * </p>
+     * <p>
+     * The setting applies from the next new game. Huge boards are too large to search, so huge games only
+     * get a safe opening.
+     * </p>
+     *
+     * @param noGuess {@code true} to deal no-guess boards
+     * @see Game#isHuge()
+     */
+    public void setNoGuess(final boolean noGuess) {
+        if (!noGuess) {
+            this.noGuess = null;
+        } else if (this.noGuess == null) {
+            this.noGuess = new NoGuessGenerator(this.randomFactory.name(), this.layoutGenerator,
+                    this.seeds.nextLong());
+        }
+    }
+
+    /**
+     * Returns whether only boards that can be won without guessing are dealt.
+     *
+     * @return {@code true} in no-guess mode
+     * @see #setNoGuess(boolean)
+     */
+    public boolean isNoGuess() {
+        return this.noGuess != null;
+    }
+
+    /**
+     * Keeps boards ready for games started without a seed. A background thread lays out the given number
+     * of boards for each recently played board size, so that {@link #newGame(Game)} only has to take one.
+     * Safe-opening and no-guess games place their mines on the first click and do not use these boards.
+     *
+     * @param size the number of boards kept ready per board size, or 0 to lay out every board when the
+     *             game starts
+     */
+    public void setLayoutPool(final int size) {
+        if (this.layoutPool != null) {
+            this.layoutPool.shutdown();
+            this.layoutPool = null;
+        }
+        if (size > 0) {
+            this.layoutPool = new LayoutPool(size, this.randomFactory, this.layoutGenerator, this.seeds.nextLong());
+            this.layoutPoolSize = size;
+        }
+    }
+
+    /**
+     * Limits how much of a cascade is opened by one call, so that opening a huge region does not hold up the
+     * caller. A call that reaches the limit returns with the rest of the cascade pending, and
+     * {@link #continueReveal()} opens the next slice. While a cascade is pending, only
+     * {@link #continueReveal()} and {@link #newGame(Game)} should be called.
+     *
+     * @param cells the most zero cells whose neighbours are revealed per call, or 0 to always finish a
+     *              cascade in the call that started it
+     * @see #isRevealing()
+     */
+    public void setRevealSlice(final int cells) {
+        this.revealSlice = cells;
+    }
+
+    /**
+     * Checks whether part of a cascade is still to be opened.
+     *
+     * @return {@code true} if {@link #continueReveal()} has work to do
+     */
+    public boolean isRevealing() {
+        return this.head < this.work.size() || !this.next.isEmpty() || this.startHead < this.starts.size();
+    }
+
+    /**
+     * Opens the next slice of a pending cascade.
+     *
+     * @see #setRevealSlice(int)
+     */
+    public void continueReveal() {
+        this.flood();
+        this.flush();
+    }
+
+    /**
+     * Replaces the layout pool after the board layout settings changed.
+     */
+    private void resetLayoutPool() {
+        if (this.layoutPool != null) {
+            this.setLayoutPool(this.layoutPoolSize);
+        }
+    }
+
+    /**
+     * Replaces the no-guess generator after the board layout settings changed.
+     */
+    private void resetNoGuess() {
+        if (this.noGuess != null) {
+            this.noGuess = null;
+            this.setNoGuess(true);
+        }
+    }
+
+    /**
+     * Lays out a new board for the given game with a fresh seed.
+     *
+     * @param game the game to play
+     * @return {@code false} if the game cannot be played because it has too many mines
+     */
+    public boolean newGame(final @NotNull Game game) {
+        return this.start(game, this.seeds.nextLong(), false, null);
+    }
+
+    /**
+     * Lays out a new board for the given game from a seed. The same game and seed always give the same
+     * board for a given random number generator algorithm and layout generator.
+     *
+     * @param game the game to play
+     * @param seed the seed of the board
+     * @return {@code false} if the game cannot be played because it has too many mines
+     */
+    public boolean newGame(final @NotNull Game game, final long seed) {
+        return this.start(game, seed, true, null);
+    }
+
+    /**
+     * Starts a game on a board laid out by {@link #layOut(Game, long)}.
+     *
+     * @param game   the game to play
+     * @param board  the laid out board
+     * @param seeded {@code true} if the seed of the board was given by the caller
+     * @return {@code false} if the game cannot be played because it has too many mines
+     */
+    boolean newGame(final @NotNull Game game, final LayoutPool.@NotNull Ready board, final boolean seeded) {
+        return this.start(game, board.seed(), seeded, board);
+    }
+
+    /**
+     * Returns a task laying out the board of a new game with a fresh seed.
+     *
+     * @param game the game to play
+     * @return the task
+     * @see #layOut(Game, long)
+     */
+    @NotNull Callable<LayoutPool.Ready> layOut(final @NotNull Game game) {
+        return this.layOut(game, this.seeds.nextLong());
+    }
+
+    /**
+     * Returns a task laying out the board of a new game, for boards too large to lay out while the player
+     * waits. The task uses the settings of the engine when this method is called and changes nothing in
+     * the engine, so it can run on another thread while the engine is in use. The game is then started
+     * with {@link #newGame(Game, LayoutPool.Ready, boolean)} on the thread that uses the engine. The
+     * layout is not cached, and the board of a game whose mines are placed on the first click is left
+     * empty.
+     *
+     * @param game the game to play
+     * @param seed the seed of the board
+     * @return the task
+     */
+    @NotNull Callable<LayoutPool.Ready> layOut(final @NotNull Game game, final long seed) {
+        final RandomGeneratorFactory<RandomGenerator> factory = this.randomFactory;
+        final MineLayoutGenerator generator = this.layoutGenerator;
+        final boolean placeNow = !this.safeOpening && this.noGuess == null;
+        return () -> {
+            final MineBoard board = new MineBoard(game.width(), game.height());
+            if (placeNow && game.mines() < board.size()) {
+                board.placeMines(generator.generateBits(game.width(), game.height(), game.mines(),
+                        MineLayoutGenerator.NO_CELLS, factory.create(seed)));
+            }
+            return new LayoutPool.Ready(seed, board);
+        };
+    }
+
+    /**
+     * Lays out a new board.
+     *
+     * @param game    the game to play
+     * @param seed    the seed of the board
+     * @param seeded  {@code true} if the seed was given by the caller
+     * @param laidOut the board laid out by {@link #layOut(Game, long)}, or {@code null} to lay it out now
+     * @return {@code false} if the game cannot be played because it has too many mines
+     */
+    private boolean start(final @NotNull Game game, final long seed, final boolean seeded,
+                          final LayoutPool.Ready laidOut) {
+        final int dWidth = game.width();
+        final int dHeight = game.height();
+        if (game.mines() >= dWidth * dHeight) {
+            logger.info("Impossible game!");
+            return false;
+        }
+        this.game = game;
+        this.seed = seed;
+        this.width = dWidth;
+        this.height = dHeight;
+        this.seeded = seeded;
+        this.guessFree = this.noGuess != null && !game.isHuge();
+        this.openSafely = this.safeOpening || this.noGuess != null;
+        final LayoutPool.Ready ready = laidOut != null ? laidOut
+                : !this.openSafely && !seeded && this.layoutPool != null && !game.isHuge()
+                ? this.layoutPool.take(game) : null;
+        if (ready != null) {
+            if (this.board != null && this.layoutPool != null) {
+                this.layoutPool.recycle(this.board);
+            }
+            this.board = ready.board();
+            this.seed = ready.seed();
+        } else if (this.board == null || this.board.width != dWidth || this.board.height != dHeight) {
+            this.board = new MineBoard(dWidth, dHeight);
+        } else {
+            this.board.clear();
+        }
+        if (this.guessFree && !seeded) {
+            this.noGuess.prefetch(game, this.board.cell(dWidth / 2, dHeight / 2));
+        }
+        if (!this.openSafely && ready == null) {
+            this.placeMines(MineLayoutGenerator.NO_CELLS, -1);
+        }
+        this.hidden = dWidth * dHeight;
+        this.mines = game.mines();
+        this.flags = game.mines();
+        this.state = READY;
+        this.changed.clear();
+        this.allChanged = false;
+        this.clearCascade();
+        this.generation++;
+        return true;
+    }
+
+    /**
+     * Reveals a tile and, if it has no adjacent mines, its neighbours.
+     * <p>
+     * The first reveal of a game starts it; if that tile is a mine, the mine is moved elsewhere first.
+     * </p>
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     */
+    public void reveal(final int x, final int y) {
+        if (this.isInside(x, y)) {
+            this.revealFrom(this.board.cell(x, y));
+        }
+        this.flood();
+        this.flush();
+    }
+
+    /**
+     * Reveals a cell and, if it has no adjacent mines, queues it so that {@link #flood()} opens the region of
+     * zero cells connected to it.
+     *
+     * @param start the cell number to reveal
+     */
+    private void revealFrom(final int start) {
+        if (this.revealCell(start)) {
+            this.work.add(start);
+        }
+    }
+
+    /**
+     * Flood fills from the queued zero cells one distance from the start at a time, revealing the neighbours
+     * of each cell of {@link #work} and collecting the zero cells among them in {@link #next}, then goes on
+     * with the next cell of a chord. Stops early once {@link #revealSlice} cells have been expanded.
+     */
+    private void flood() {
+        int budget = this.revealSlice > 0 ? this.revealSlice : Integer.MAX_VALUE;
+        while (this.state <= PLAYING && budget > 0 && this.isRevealing()) {
+            if (this.head == this.work.size()) {
+                if (this.next.isEmpty()) {
+                    this.revealFrom(this.starts.get(this.startHead++));
+                    continue;
+                }
+                final IntList level = this.work;
+                level.clear();
+                this.work = this.next;
+                this.next = level;
+                this.head = 0;
+            }
+            final int cell = this.work.get(this.head++);
+            budget--;
+            final Topology t = this.board.topology;
+            final int k = t.kind(cell);
+            for (int i = t.start[k]; i < t.start[k + 1]; i++) {
+                final int n = cell + t.offsets[i];
+                if (this.revealCell(n)) {
+                    this.next.add(n);
+                }
+            }
+        }
+        if (this.state > PLAYING || !this.isRevealing()) {
+            this.clearCascade();
+        }
+    }
+
+    private void clearCascade() {
+        this.work.clear();
+        this.next.clear();
+        this.head = 0;
+        this.starts.clear();
+        this.startHead = 0;
+    }
+
+    /**
+     * Reveals a single cell without cascading.
+     *
+     * @param cell the cell number to reveal
+     * @return {@code true} if the cell shows no adjacent mines, so its neighbours should be revealed too
+     */
+    private boolean revealCell(final int cell) {
+        if (this.state == WON || this.state == LOST) {
+            return false;
+        }
+        final MineBoard b = this.board;
+        if (b.isRevealed(cell)) {
+            return false;
+        }
+        final int index = b.index(cell);
+        if ((b.isMine(cell) && index == MineTile.FLAG) || index == MineTile.MINE ||
+                index == MineTile.REDMINE || index == MineTile.WRONG) {
+            return false;
+        }
+        b.setRevealed(cell, true);
+        if (this.state == READY) {
+            this.state = PLAYING;
+            this.listener.gameStarted();
+            if (this.guessFree) {
+                this.seed = this.seeded
+                        ? this.noGuess.search(this.game, cell, new SplittableRandom(this.seed))
+                        : this.noGuess.take(this.game, cell, this.seeds);
+                this.placeMinesAround(cell);
+            } else if (this.openSafely) {
+                this.placeMinesAround(cell);
+            } else if (b.isMine(cell)) {
+                this.relocateMine(cell);
+            }
+        }
+        if (b.isMine(cell)) {
+            this.setIndex(cell, MineTile.REDMINE);
+            this.loseGame();
+            return false;
+        }
+        --this.hidden;
+        if (this.hidden < 0) {
+            logger.debug("miscount!");
+        }
+        if (index != MineTile.FLAG) {
+            this.setIndex(cell, b.number(cell));
+        }
+        if (this.hidden == this.mines) {
+            this.winGame();
+            return false;
+        }
+        return b.index(cell) == 0;
+    }
+
+    /**
+     * Moves the mine under the first click to the first free tile. Only the adjacent mine counts around
+     * the old and the new position are updated.
+     *
+     * @param cell the clicked cell number
+     */
+    private void relocateMine(final int cell) {
+        final MineBoard b = this.board;
+        for (int i = 0; i < b.size(); ++i) {
+            if (!b.isMine(i) && i != cell) {
+                b.removeMine(cell);
+                b.addMine(i);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Places the mines of a safe-opening game, keeping the first clicked cell and, if there is room, its
+     * neighbours free of mines.
+     *
+     * @param cell the clicked cell number
+     */
+    private void placeMinesAround(final int cell) {
+        final int cx = cell % this.width;
+        final int cy = cell / this.width;
+        final int spread = this.board.size() - this.mines >= 9 ? 1 : 0;
+        final IntList excluded = this.work;
+        for (int ny = Math.max(cy - spread, 0); ny <= Math.min(cy + spread, this.height - 1); ny++) {
+            for (int nx = Math.max(cx - spread, 0); nx <= Math.min(cx + spread, this.width - 1); nx++) {
+                excluded.add(this.board.cell(nx, ny));
+            }
+        }
+        final int[] cells = new int[excluded.size()];
+        System.arraycopy(excluded.array(), 0, cells, 0, cells.length);
+        excluded.clear();
+        this.placeMines(cells, cell);
+    }
+
+    /**
+     * Places the mines of the current seed on the board and updates the adjacent counts. The layout is
+     * taken from the cache if it was generated recently. Layouts of huge boards are not cached, and are
+     * generated as a bit set rather than a list of cells, which would take four bytes per mine.
+     *
+     * @param excluded  cells that must not hold a mine, sorted in ascending order
+     * @param firstCell the first clicked cell of a safe-opening game, or -1
+     */
+    private void placeMines(final int[] excluded, final int firstCell) {
+        if (this.game.isHuge()) {
+            this.board.placeMines(this.layoutGenerator.generateBits(this.width, this.height, this.game.mines(),
+                    excluded, this.randomFactory.create(this.seed)));
+            return;
+        }
+        final LayoutCache.Key key = new LayoutCache.Key(this.width, this.height, this.game.mines(), this.seed,
+                this.randomFactory.name(), firstCell);
+        int[] layout = this.layoutCache.get(key);
+        if (layout == null) {
+            layout = this.layoutGenerator.generate(this.width, this.height, this.game.mines(), excluded,
+                    this.randomFactory.create(this.seed));
+            this.layoutCache.put(key, layout);
+        }
+        this.board.placeMines(layout);
+    }
+
+    /**
+     * Reveals a tile and its eight neighbours, as done when chording.
+     *
+     * @param x The x-coordinate of the center tile.
+     * @param y The y-coordinate of the center tile.
+     */
+    public void squareReveal(final int x, final int y) {
+        if (this.isInside(x, y)) {
+            final int cell = this.board.cell(x, y);
+            final Topology t = this.board.topology;
+            final int k = t.kind(cell);
+            this.revealFrom(cell);
+            for (int i = t.start[k]; i < t.start[k + 1]; i++) {
+                this.starts.add(cell + t.offsets[i]);
+            }
+        }
+        this.flood();
+        this.flush();
+    }
+
+    /**
+     * Checks whether a chord on the given tile would reveal its neighbours, i.e. the tile shows a number
+     * that equals the number of flags around it.
+     *
+     * @param x The x-coordinate of the center tile.
+     * @param y The y-coordinate of the center tile.
+     * @return {@code true} if the neighbours can be revealed
+     */
+    public boolean canChord(final int x, final int y) {
+        if (!this.isInside(x, y)) {
+            return false;
+        }
+        final int cell = this.board.cell(x, y);
+        final int number = this.board.number(cell);
+        return this.squareFlags(x, y) == number && number == this.board.index(cell);
+    }
+
+    /**
+     * Handles the lost game: shows all hidden mines and marks flags that were placed on safe tiles.
+     */
+    private void loseGame() {
+        this.state = LOST;
+        final MineBoard b = this.board;
+        for (int cell = 0; cell < b.size(); cell++) {
+            if (b.isRevealed(cell)) {
+                continue; // Skip already revealed tiles
+            }
+            final int index = b.index(cell);
+            if (b.isMine(cell) && index == MineTile.HIDDEN) {
+                b.setRevealed(cell, true);
+                this.setIndex(cell, MineTile.MINE);
+            } else if (index == MineTile.FLAG && !b.isMine(cell)) {
+                b.setRevealed(cell, true);
+                this.setIndex(cell, MineTile.WRONG);
+            }
+        }
+        this.flush();
+        this.listener.gameLost();
+    }
+
+    /**
+     * Handles the won game: flags every mine.
+     */
+    private void winGame() {
+        this.state = WON;
+        this.flags = 0;
+        for (int cell = 0; cell < this.board.size(); cell++) {
+            if (this.board.isMine(cell)) {
+                this.setIndex(cell, MineTile.FLAG);
+            }
+        }
+        this.flush();
+        this.listener.gameWon();
+    }
+
+    /**
+     * Cycles the mark on a hidden tile: hidden, flag, question mark and back to hidden.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     */
+    public void cycleMark(final int x, final int y) {
+        if (!this.isInside(x, y)) {
+            return;
+        }
+        final int cell = this.board.cell(x, y);
+        final int index = this.board.index(cell);
+        if (index == MineTile.HIDDEN) {
+            --this.flags;
+            this.setIndex(cell, MineTile.FLAG);
+        } else if (index == MineTile.FLAG) {
+            this.setIndex(cell, MineTile.QMARK);
+            ++this.flags;
+        } else if (index == MineTile.QMARK) {
+            this.setIndex(cell, MineTile.HIDDEN);
+        }
+        this.flush();
+    }
+
+    /**
+     * Sets the display index of a tile, notifying the listener if it changed.
+     *
+     * @param x     The x-coordinate of the tile.
+     * @param y     The y-coordinate of the tile.
+     * @param index The index representing the new state of the tile.
+     */
+    public void touch(final int x, final int y, final int index) {
+        this.setIndex(this.board.cell(x, y), index);
+        this.flush();
+    }
+
+    /**
+     * Shows a tile as pressed down, if it is hidden.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     */
+    public void touch(final int x, final int y) {
+        if (this.isInside(x, y)) {
+            this.press(this.board.cell(x, y));
+        }
+        this.flush();
+    }
+
+    /**
+     * Restores a pressed tile to the way it looked before it was pressed.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     */
+    public void retouch(final int x, final int y) {
+        if (this.isInside(x, y)) {
+            this.release(this.board.cell(x, y));
+        }
+        this.flush();
+    }
+
+    /**
+     * Shows a tile and its eight neighbours as pressed down.
+     *
+     * @param x The x-coordinate of the center tile.
+     * @param y The y-coordinate of the center tile.
+     */
+    public void squareDown(final int x, final int y) {
+        if (this.isInside(x, y)) {
+            final int cell = this.board.cell(x, y);
+            final Topology t = this.board.topology;
+            final int k = t.kind(cell);
+            this.press(cell);
+            for (int i = t.start[k]; i < t.start[k + 1]; i++) {
+                this.press(cell + t.offsets[i]);
+            }
+        }
+        this.flush();
+    }
+
+    /**
+     * Restores a tile and its eight neighbours after they were pressed down.
+     *
+     * @param x The x-coordinate of the center tile.
+     * @param y The y-coordinate of the center tile.
+     */
+    public void squareUp(final int x, final int y) {
+        if (this.isInside(x, y)) {
+            final int cell = this.board.cell(x, y);
+            final Topology t = this.board.topology;
+            final int k = t.kind(cell);
+            this.release(cell);
+            for (int i = t.start[k]; i < t.start[k + 1]; i++) {
+                this.release(cell + t.offsets[i]);
+            }
+        }
+        this.flush();
+    }
+
+    private void press(final int cell) {
+        if (!this.board.isRevealed(cell)) {
+            this.board.press(cell);
+            this.changed(cell);
+        }
+    }
+
+    private void release(final int cell) {
+        this.board.release(cell);
+        this.changed(cell);
+    }
+
+    /**
+     * Sets the display index of a cell and records the change if the index differs.
+     *
+     * @param cell  the cell number
+     * @param index the new display index
+     */
+    private void setIndex(final int cell, final int index) {
+        if (this.board.index(cell) != index) {
+            this.board.setIndex(cell, index);
+            this.changed(cell);
+        }
+    }
+
+    /**
+     * Records a changed cell, or that the whole board changed once there are too many.
+     *
+     * @param cell the cell number
+     */
+    private void changed(final int cell) {
+        if (this.changed.size() < MAX_CHANGED) {
+            this.changed.add(cell);
+        } else {
+            this.allChanged = true;
+        }
+    }
+
+    /**
+     * Reports the cells changed since the last call to the listener, as one batch.
+     */
+    private void flush() {
+        if (this.allChanged) {
+            this.listener.boardChanged();
+        } else if (!this.changed.isEmpty()) {
+            this.listener.tilesChanged(this.changed.array(), this.changed.size());
+        }
+        this.changed.clear();
+        this.allChanged = false;
+    }
+
+    /**
+     * Counts the number of flagged tiles in a square centered at the specified coordinates (x, y).
+     *
+     * @param x The x-coordinate of the center tile.
+     * @param y The y-coordinate of the center tile.
+     * @return The total number of flagged tiles.
+     */
+    public int squareFlags(final int x, final int y) {
+        if (!this.isInside(x, y)) {
+            return 0;
+        }
+        final MineBoard b = this.board;
+        final int cell = b.cell(x, y);
+        final Topology t = b.topology;
+        final int k = t.kind(cell);
+        int flags = b.index(cell) == MineTile.FLAG ? 1 : 0;
+        for (int i = t.start[k]; i < t.start[k + 1]; i++) {
+            if (b.index(cell + t.offsets[i]) == MineTile.FLAG) {
+                flags++;
+            }
+        }
+        return flags;
+    }
+
+    /**
+     * Checks if a tile at the specified coordinates is flagged.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     * @return 1 if the tile is flagged, 0 otherwise.
+     */
+    public int isFlag(final int x, final int y) {
+        if (!this.isInside(x, y)) {
+            return 0;
+        }
+        if (this.board.index(this.board.cell(x, y)) == MineTile.FLAG) {
+            return 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Checks whether the coordinates lie on the board.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     * @return {@code true} if the tile exists
+     */
+    public boolean isInside(final int x, final int y) {
+        return this.board != null && x >= 0 && y >= 0 && x < this.width && y < this.height;
+    }
+
+    /**
+     * Returns the tile at the specified coordinates.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     * @return the tile
+     */
+    public MineTile tile(final int x, final int y) {
+        return new MineTile(this.board, this.board.cell(x, y));
+    }
+
+    /**
+     * Returns the packed board of the current game.
+     *
+     * @return the board, or {@code null} before the first call to {@link #newGame(Game)}
+     */
+    MineBoard board() {
+        return this.board;
+    }
+
+    /**
+     * Returns a number that changes whenever a new game is started.
+     *
+     * @return the number of games started by this engine
+     */
+    int generation() {
+        return this.generation;
+    }
+
+    /**
+     * Returns the game being played.
+     *
+     * @return the game, or {@code null} before the first call to {@link #newGame(Game)}
+     */
+    public Game game() {
+        return this.game;
+    }
+
+    /**
+     * Returns the seed of the current board.
+     *
+     * @return the seed passed to, or chosen by, the last new game, or the seed found for a no-guess game once
+     * its first tile is revealed
+     */
+    public long seed() {
+        return this.seed;
+    }
+
+    /**
+     * Returns the random number generator algorithm boards are laid out with.
+     *
+     * @return the algorithm name
+     * @see #setRandomAlgorithm(String)
+     */
+    public @NotNull String randomAlgorithm() {
+        return this.randomFactory.name();
+    }
+
+    /**
+     * Returns the width of the board.
+     *
+     * @return the width in tiles
+     */
+    public int width() {
+        return this.width;
+    }
+
+    /**
+     * Returns the height of the board.
+     *
+     * @return the height in tiles
+     */
+    public int height() {
+        return this.height;
+    }
+
+    /**
+     * Returns the 3BV of the board, the least number of clicks that would reveal every safe tile without
+     * chording. It is a measure of how much work a board is, used to compare times on different boards.
+     *
+     * @return the 3BV, or 0 before the mines of a safe-opening game are placed
+     */
+    public int bbbv() {
+        if (this.board == null || this.state == READY && this.openSafely) {
+            return 0;
+        }
+        return this.board.bbbv();
+    }
+
+    /**
+     * Returns the number of mines on the board.
+     *
+     * @return the number of mines
+     */
+    public int mines() {
+        return this.mines;
+    }
+
+    /**
+     * Returns the number of tiles that have not been revealed.
+     *
+     * @return the number of hidden tiles
+     */
+    public int hidden() {
+        return this.hidden;
+    }
+
+    /**
+     * Returns the number of mines minus the number of flags placed.
+     *
+     * @return the flag counter
+     */
+    public int flags() {
+        return this.flags;
+    }
+
+    /**
+     * Returns the current game state.
+     *
+     * @return one of {@link #READY}, {@link #PLAYING}, {@link #WON} or {@link #LOST}
+     */
+    public int state() {
+        return this.state;
+    }
+
+    /**
+     * Receives notifications from a {@link MineEngine}. All methods do nothing by default.
+     */
+    public interface Listener {
+        /**
+         * Called when the display index of one or more tiles has changed. A whole cascade is reported in
+         * one call. The array is reused by the engine and must not be kept.
+         *
+         * @param cells the changed cell numbers, see {@link MineBoard#cell(int, int)}
+         * @param count the number of valid entries in {@code cells}
+         */
+        default void tilesChanged(int[] cells, int count) {
+        }
+
+        /**
+         * Called instead of {@link #tilesChanged(int[], int)} when too many tiles changed at once to list
+         * them, so that the whole board should be treated as changed.
+         */
+        default void boardChanged() {
+        }
+
+        /**
+         * Called when the first tile of a game is revealed.
+         */
+        default void gameStarted() {
+        }
+
+        /**
+         * Called when the game has been won.
+         */
+        default void gameWon() {
+        }
+
+        /**
+         * Called when the game has been lost.
+         */
+        default void gameLost() {
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package dev.jcps;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Chooses where the mines of a new board go.
+ * <p>
+ * A layout is returned as the cell numbers of the mines, using the row-by-row numbering of
+ * {@link MineBoard#cell(int, int)}. Implementations must be safe to call from several threads at once,
+ * each with its own random number generator.
+ * </p>
+ *
+ * @since 1.1
+ */
+public interface MineLayoutGenerator {
+    /**
+     * An empty list of excluded cells.
+     */
+    int[] NO_CELLS = new int[0];
+
+    /**
+     * Chooses the mine cells of a board.
+     *
+     * @param width    the width of the board
+     * @param height   the height of the board
+     * @param mines    the number of mines to place
+     * @param excluded cells that must not hold a mine, sorted in ascending order without duplicates
+     * @param random   the source of randomness
+     * @return the distinct cell numbers of the mines, {@code mines} entries long
+     * @throws IllegalArgumentException if the mines do not fit outside the excluded cells
+     */
+    int[] generate(int width, int height, int mines, int[] excluded, RandomGenerator random);
+
+    /**
+     * Chooses the mine cells of a board as a bit set, for boards too large to list the mines one by one.
+     * Gives the same mines as {@link #generate(int, int, int, int[], RandomGenerator)} for the same random
+     * numbers; the default lists them first and then sets their bits.
+     *
+     * @param width    the width of the board
+     * @param height   the height of the board
+     * @param mines    the number of mines to place
+     * @param excluded cells that must not hold a mine, sorted in ascending order without duplicates
+     * @param random   the source of randomness
+     * @return the mine cells, bit {@code cell & 63} of word {@code cell >>> 6} being set for a mine
+     * @throws IllegalArgumentException if the mines do not fit outside the excluded cells
+     */
+    default long[] generateBits(final int width, final int height, final int mines, final int[] excluded,
+                                final RandomGenerator random) {
+        final long[] bits = new long[(width * height + 63) >>> 6];
+        for (final int cell : this.generate(width, height, mines, excluded, random)) {
+            bits[cell >>> 6] |= 1L << cell;
+        }
+        return bits;
+    }
+}
@@ -68,15 +68,30 @@ class MineOptionsDialog extends Dialog implements ActionListener, WindowListener
     }
 
     /**
-     * An array storing the high scores.
+     * The score shown for a board without any.
      */
-    private final Score[] highScores;
+    private static final Score NO_SCORE = new Score("Unknown", Long.MAX_VALUE);
+
+    /**
+     * The winning times of every board.
+     */
+    private ScoreStore scores;
 
     /**
      * An array storing labels for displaying scores.
      */
     private final Label[] scoreLabels;
 
+    /**
+     * Label showing the statistics of the player on the selected difficulty.
+     */
+    private final Label statsLabel;
+
+    /**
+     * The name of the player whose statistics are shown.
+     */
+    private String player;
+
     /**
      * Checkbox for selecting the beginner difficulty level.
      */
@@ -97,6 +112,11 @@ class MineOptionsDialog extends Dialog implements ActionListener, WindowListener
      */
     private final Checkbox customCheck;
 
+    /**
+     * Checkbox for only dealing boards that can be won without guessing.
+     */
+    private final Checkbox noGuessCheck;
+
     /**
      * Button for confirming dialog selections.
      */
@@ -142,16 +162,15 @@ class MineOptionsDialog extends Dialog implements ActionListener, WindowListener
         this.setFont(MineOptionsDialog.DEFAULT_FONT);
         this.setBackground(MineOptionsDialog.DEFAULT_BACKGROUND);
         this.setForeground(foreground);
-        this.highScores = new Score[3];
         this.scoreLabels = new Label[3];
         for (int i = 0; i < 3; ++i) {
             (this.scoreLabels[i] = new Label("")).setFont(MineOptionsDialog.DEFAULT_SCORE_FONT);
             this.scoreLabels[i].setForeground(MineOptionsDialog.DEFAULT_SCORE_COLOR);
         }
         this.cd = new CustomDialog(frame);
-        for (int j = 0; j < 3; ++j) {
-            this.highScores[j] = new Score("Unknown", 999);
-        }
+        this.scores = ScoreStore.inMemory();
+        this.player = "Unknown";
+        this.statsLabel = new Label("");
         this.updateLabels();
         (this.okButton = new JButton("OK")).addActionListener(this);
         this.okButton.setBackground(foreground);
@@ -167,6 +186,7 @@ class MineOptionsDialog extends Dialog implements ActionListener, WindowListener
                 .addItemListener(this);
         (this.customCheck = new Checkbox("Custom...", this.difficulty == this.custom, checkGroup))
                 .addItemListener(this);
+        this.noGuessCheck = new Checkbox("No guessing", false);
         this.setLayout(new GridBagLayout());
         final GridBagConstraints constraints = new GridBagConstraints();
         constraints.insets = new Insets(3, 3, 3, 3);
@@ -184,6 +204,8 @@ class MineOptionsDialog extends Dialog implements ActionListener, WindowListener
         ++constraints.gridy;
         this.add(this.expertCheck, constraints);
         ++constraints.gridy;
+        this.add(this.noGuessCheck, constraints);
+        ++constraints.gridy;
         constraints.anchor = 16;
         final int gridY = constraints.gridy;
         this.add(this.okButton, constraints);
@@ -199,6 +221,11 @@ class MineOptionsDialog extends Dialog implements ActionListener, WindowListener
         constraints.gridy = gridY;
         constraints.anchor = 14;
         this.add(this.cancelButton, constraints);
+        constraints.gridx = 0;
+        constraints.gridy = gridY + 1;
+        constraints.gridwidth = 2;
+        constraints.anchor = 17;
+        this.add(this.statsLabel, constraints);
         this.pack();
         this.okButton.requestFocus();
     }
@@ -209,13 +236,56 @@ class MineOptionsDialog extends Dialog implements ActionListener, WindowListener
     public void updateLabels() {
         final NumberFormat instance = NumberFormat.getInstance();
         instance.setMinimumIntegerDigits(3);
-        instance.setMaximumIntegerDigits(3);
+        instance.setMinimumFractionDigits(3);
+        instance.setMaximumFractionDigits(3);
+        instance.setGroupingUsed(false);
+        final Game[] games = {JMine.BEGINNER, JMine.INTERMEDIATE, JMine.EXPERT};
         for (int i = 0; i < 3; ++i) {
-            this.scoreLabels[i].setText(instance.format(this.highScores[i].time()) + "   " + this.highScores[i].name());
+            final Score best = this.getBestScore(games[i]);
+            final String time = best == NO_SCORE ? "999" : instance.format(best.time() / 1000.0);
+            this.scoreLabels[i].setText(time + "   " + best.name());
+        }
+        this.updateStats();
+    }
+
+    /**
+     * Shows the statistics of the player on the selected difficulty. They are kept up to date as games
+     * are recorded, so nothing is computed here.
+     */
+    private void updateStats() {
+        final PlayerStats stats = this.scores.stats(this.difficulty, this.player);
+        if (stats == null) {
+            this.statsLabel.setText(this.player + ": no games yet");
+        } else {
+            final double median = stats.timePercentile(0.5);
+            this.statsLabel.setText(String.format("%s: %d played, %.0f%% won, streak %d (best %d), median %s, "
+                            + "3BV/s %.2f", this.player, stats.games(), 100 * stats.winRate(), stats.streak(),
+                    stats.bestStreak(), Double.isNaN(median) ? "-" : String.format("%.3f s", median / 1000.0),
+                    stats.bbbvPerSecond()));
         }
         this.pack();
     }
 
+    /**
+     * Sets the player whose statistics are shown.
+     *
+     * @param player the name of the player
+     */
+    public void setPlayer(final @NotNull String player) {
+        this.player = player;
+        this.updateStats();
+    }
+
+    /**
+     * Sets the store the best scores are kept in.
+     *
+     * @param scores the score store
+     */
+    public void setScoreStore(final @NotNull ScoreStore scores) {
+        this.scores = scores;
+        this.updateLabels();
+    }
+
     /**
      * Gets the best scores
      *
@@ -223,33 +293,32 @@ class MineOptionsDialog extends Dialog implements ActionListener, WindowListener
      * @return the Score object
      */
     public Score getBestScore(final Game game) {
-        if (game == JMine.BEGINNER) {
-            return this.highScores[0];
-        }
-        if (game == JMine.INTERMEDIATE) {
-            return this.highScores[1];
-        }
-        if (game == JMine.EXPERT) {
-            return this.highScores[2];
-        }
-        return new Score("", 0);
+        final Score best = this.scores.best(game);
+        return best != null ? best : NO_SCORE;
     }
 
     /**
-     * Sets the best score for a game.
+     * Records a winning time for a game. Any board size can be recorded, custom ones included.
      *
      * @param game The game to set the score for
      * @param s    The name of the player who scored
-     * @param time The time scored
-     */
-    public void setHighScore(final Game game, final String s, final int time) {
-        if (game == JMine.BEGINNER) {
-            this.highScores[0] = new Score(s, time);
-        } else if (game == JMine.INTERMEDIATE) {
-            this.highScores[1] = new Score(s, time);
-        } else if (game == JMine.EXPERT) {
-            this.highScores[2] = new Score(s, time);
-        }
+     * @param time The time scored, in milliseconds
+     */
+    public void setHighScore(final Game game, final String s, final long time) {
+        this.recordGame(game, s, true, time, 0);
+    }
+
+    /**
+     * Records a finished game, won or lost, in the statistics of the player.
+     *
+     * @param game   The game played
+     * @param player The name of the player
+     * @param won    {@code true} if the game was won
+     * @param time   The time played, in milliseconds
+     * @param bbbv   The 3BV of the board, or 0 if unknown
+     */
+    public void recordGame(final Game game, final String player, final boolean won, final long time, final int bbbv) {
+        this.scores.record(game, player, won, time, bbbv);
         this.updateLabels();
     }
 
@@ -285,6 +354,28 @@ class MineOptionsDialog extends Dialog implements ActionListener, WindowListener
         return game;
     }
 
+    /**
+     * Retrieves the no-guess setting based on the current activation state of the dialog.
+     *
+     * @param noGuess The setting to return if the dialog is not activated.
+     * @return {@code true} if only boards that can be won without guessing should be dealt.
+     */
+    public boolean getNoGuess(final boolean noGuess) {
+        if (this.activated) {
+            return this.noGuessCheck.getState();
+        }
+        return noGuess;
+    }
+
+    /**
+     * Sets the no-guess setting shown by the dialog.
+     *
+     * @param noGuess {@code true} if only boards that can be won without guessing are dealt
+     */
+    public void setNoGuess(final boolean noGuess) {
+        this.noGuessCheck.setState(noGuess);
+    }
+
     /**
      * Sets the game difficulty.
      *
@@ -292,6 +383,7 @@ class MineOptionsDialog extends Dialog implements ActionListener, WindowListener
      */
     public void setGame(final Game difficulty) {
         this.difficulty = difficulty;
+        this.updateStats();
         if (this.difficulty == JMine.BEGINNER) {
             this.beginnerCheck.setState(true);
             return;
@@ -315,23 +407,18 @@ class MineOptionsDialog extends Dialog implements ActionListener, WindowListener
     public void itemStateChanged(final @NotNull ItemEvent itemEvent) {
         if (itemEvent.getSource() == this.beginnerCheck && this.beginnerCheck.getState()) {
             this.difficulty = JMine.BEGINNER;
-            return;
-        }
-        if (itemEvent.getSource() == this.intermediateCheck && this.intermediateCheck.getState()) {
+        } else if (itemEvent.getSource() == this.intermediateCheck && this.intermediateCheck.getState()) {
             this.difficulty = JMine.INTERMEDIATE;
-            return;
-        }
-        if (itemEvent.getSource() == this.expertCheck) {
+        } else if (itemEvent.getSource() == this.expertCheck) {
             this.difficulty = JMine.EXPERT;
-            return;
-        }
-        if (itemEvent.getSource() == this.customCheck && this.customCheck.getState()) {
+        } else if (itemEvent.getSource() == this.customCheck && this.customCheck.getState()) {
             this.setModal(false);
             this.cd.setModal(true);
             this.cd.setVisible(true);
             this.setModal(true);
             this.difficulty = this.cd.getGame(this.difficulty);
         }
+        this.updateStats();
     }
 
     /**
@@ -0,0 +1,849 @@
+package dev.jcps;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Computes, for every hidden tile, the probability that it holds a mine, for situations where the
+ * {@link Solver} finds no safe tile.
+ * <p>
+ * Unknown tiles next to a revealed number form the frontier. The frontier splits into components: tiles
+ * that share no number cannot influence each other except through the total number of mines. The
+ * assignments of each component that satisfy its numbers are enumerated and counted by the number of
+ * mines they use. The components are then combined with the tiles away from the frontier, weighting
+ * every total by the number of ways the remaining mines can be spread over those tiles. This gives the
+ * exact probabilities for the uniformly random layouts consistent with what the player sees.
+ * </p>
+ * <p>
+ * The counts of each component are cached, so after a move only the components it touched are
+ * enumerated again. A component of more than {@link #ENUMERATE_LIMIT} tiles, or too large to enumerate
+ * within {@link #NODE_BUDGET} steps, is estimated by sequential importance sampling instead. On very large boards with many components the combination
+ * step assumes the other tiles hold mines independently at the average density, which is accurate when
+ * there are many tiles away from the frontier.
+ * </p>
+ *
+ * @since 1.1
+ */
+public class MineProbability {
+    /**
+     * The most search steps spent enumerating one component before sampling it instead.
+     */
+    static final int NODE_BUDGET = 1 << 20;
+
+    /**
+     * The most tiles of a component that are enumerated. The counts per tile of an enumerated component
+     * take {@code n * (n + 1)} doubles, and a larger component would rarely fit the node budget anyway.
+     */
+    static final int ENUMERATE_LIMIT = 512;
+
+    /**
+     * The number of samples drawn for each pass over a sampled component.
+     */
+    static final int SAMPLES = 4096;
+
+    /**
+     * The largest product of frontier size and component count combined exactly.
+     */
+    static final long COUPLING_LIMIT = 1L << 20;
+
+    private final Solver solver;
+    private final SplittableRandom random;
+
+    /**
+     * The engine generation the cached results belong to.
+     */
+    private int generation = -1;
+
+    /**
+     * Mine probability of every tile as of the last call to {@link #compute()}.
+     */
+    private double[] probabilities = new double[0];
+
+    /**
+     * Counts of the components seen by the last computation, by signature.
+     */
+    private Map<Key, Counts> cache = new HashMap<>();
+
+    /**
+     * Local index of each frontier tile, or -1.
+     */
+    private int[] local = new int[0];
+
+    private final IntList cells = new IntList();
+    private final IntList constraints = new IntList();
+    private final IntList needs = new IntList();
+    private final IntList constraintStart = new IntList();
+    private final IntList constraintCells = new IntList();
+    private int[] cellStart = new int[1];
+    private int[] cellConstraints = new int[0];
+    private int[] parent = new int[0];
+
+    /*
+     * Search state of the component being enumerated or sampled.
+     */
+    private int[] order = new int[0];
+    private int[] need = new int[0];
+    private int[] left = new int[0];
+    private byte[] assign = new byte[0];
+    private long nodes;
+
+    /**
+     * Constructs a probability engine on top of a solver.
+     *
+     * @param solver the solver whose knowledge is used
+     */
+    public MineProbability(final @NotNull Solver solver) {
+        this(solver, new SplittableRandom());
+    }
+
+    /**
+     * Constructs a probability engine on top of a solver, sampling large components with the given
+     * random number generator.
+     *
+     * @param solver the solver whose knowledge is used
+     * @param random the random number generator used for sampling
+     */
+    public MineProbability(final @NotNull Solver solver, final @NotNull SplittableRandom random) {
+        this.solver = solver;
+        this.random = random;
+    }
+
+    /**
+     * Counts of the satisfying assignments of a component by number of mines.
+     *
+     * @param ways      weight of the assignments using {@code k} mines, at index {@code k}
+     * @param cellWays  weight of the assignments using {@code k} mines that put a mine on local tile
+     *                  {@code i}, at index {@code i * (size + 1) + k}; {@code null} if the component is sampled
+     * @param sampled   whether the counts are estimates
+     */
+    private record Counts(double[] ways, double[] cellWays, boolean sampled) {
+    }
+
+    /**
+     * A component signature: its tiles, then each of its numbers with the mines it still needs.
+     */
+    private static final class Key {
+        private final int[] data;
+        private final int hash;
+
+        Key(final int[] data) {
+            this.data = data;
+            this.hash = Arrays.hashCode(data);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof Key && Arrays.equals(this.data, ((Key) o).data);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    /**
+     * Brings the solver up to date and computes the mine probability of every tile.
+     *
+     * @return the probabilities by cell number: 0 for revealed and proven safe tiles, 1 for proven mines;
+     * the array is reused by later calls
+     */
+    public double[] compute() {
+        this.solver.solve();
+        final MineBoard board = this.solver.board();
+        final MineEngine engine = this.solver.engine();
+        if (board == null || engine.board() != board) {
+            return this.probabilities;
+        }
+        final int size = board.size();
+        if (this.generation != engine.generation() || this.probabilities.length != size) {
+            this.generation = engine.generation();
+            this.probabilities = new double[size];
+            this.local = new int[size];
+            Arrays.fill(this.local, -1);
+            this.cache.clear();
+        }
+        this.collectFrontier(board);
+        final int frontier = this.cells.size();
+        final int interior = this.solver.unknownCount() - frontier;
+        final int remaining = engine.mines() - this.solver.knownMines();
+
+        final int components = this.buildComponents();
+        final Counts[] counts = new Counts[components];
+        final int[][] members = new int[components][];
+        final Map<Key, Counts> next = new HashMap<>();
+        final int[] first = new int[components];
+        final int[] sizes = new int[components];
+        Arrays.fill(first, -1);
+        for (int i = 0; i < frontier; i++) {
+            final int c = this.parent[i];
+            if (first[c] < 0) {
+                first[c] = i;
+            }
+            sizes[c]++;
+        }
+        final boolean[] seenCell = new boolean[frontier];
+        final boolean[] seenConstraint = new boolean[this.constraints.size()];
+        for (int c = 0; c < components; c++) {
+            members[c] = this.componentOrder(first[c], sizes[c], seenCell, seenConstraint);
+            final Key key = this.signature(members[c]);
+            Counts found = this.cache.get(key);
+            if (found == null) {
+                found = this.count(members[c]);
+            }
+            next.put(key, found);
+            counts[c] = found;
+        }
+        this.cache = next;
+
+        final double[][] weights = (long) frontier * components <= COUPLING_LIMIT
+                ? exactWeights(counts, frontier, interior, remaining)
+                : densityWeights(counts, frontier, interior, remaining);
+        double interiorProbability = weights[components][0];
+        for (int c = 0; c < components; c++) {
+            this.assignProbabilities(members[c], counts[c], weights[c]);
+        }
+        for (int cell = 0; cell < size; cell++) {
+            if (!this.solver.isUnknown(cell)) {
+                this.probabilities[cell] = board.isRevealed(cell) || !isProvenMine(board, cell) ? 0.0 : 1.0;
+            } else if (this.local[cell] < 0) {
+                this.probabilities[cell] = interiorProbability;
+            }
+        }
+        for (int i = 0; i < frontier; i++) {
+            this.local[this.cells.get(i)] = -1;
+        }
+        return this.probabilities;
+    }
+
+    private boolean isProvenMine(final MineBoard board, final int cell) {
+        return this.solver.isMine(cell % board.width, cell / board.width);
+    }
+
+    /**
+     * Returns the probability that a tile holds a mine, as of the last call to {@link #compute()}.
+     *
+     * @param cell the cell number
+     * @return the probability
+     */
+    public double probability(final int cell) {
+        return this.probabilities[cell];
+    }
+
+    /**
+     * Returns the hidden tile least likely to hold a mine. Proven safe tiles come first, and among equal
+     * probabilities a tile next to a number is preferred, since revealing it tells more.
+     *
+     * @return the cell number, or -1 if no tile is hidden
+     */
+    public int bestGuess() {
+        final double[] p = this.compute();
+        final MineBoard board = this.solver.board();
+        if (board == null) {
+            return -1;
+        }
+        int best = -1;
+        double bestProbability = 2.0;
+        boolean bestFrontier = false;
+        for (int cell = 0; cell < p.length; cell++) {
+            if (board.isRevealed(cell) || p[cell] >= 1.0) {
+                continue;
+            }
+            final boolean frontier = this.touchesNumber(board, cell);
+            if (p[cell] < bestProbability || (p[cell] == bestProbability && frontier && !bestFrontier)) {
+                best = cell;
+                bestProbability = p[cell];
+                bestFrontier = frontier;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Plays a game to its end: reveals every tile the solver proves safe, and when it is stuck, the best
+     * guess.
+     *
+     * @return the final game state, {@link MineEngine#WON} or {@link MineEngine#LOST}
+     */
+    public int play() {
+        final MineEngine engine = this.solver.engine();
+        while (engine.state() <= MineEngine.PLAYING) {
+            this.solver.play();
+            if (engine.state() > MineEngine.PLAYING) {
+                break;
+            }
+            final int cell = this.bestGuess();
+            if (cell < 0) {
+                break;
+            }
+            engine.reveal(cell % engine.width(), cell / engine.width());
+        }
+        return engine.state();
+    }
+
+    private boolean touchesNumber(final MineBoard board, final int cell) {
+        final int x = cell % board.width;
+        final int y = cell / board.width;
+        for (int ny = Math.max(y - 1, 0); ny <= Math.min(y + 1, board.height - 1); ny++) {
+            for (int nx = Math.max(x - 1, 0); nx <= Math.min(x + 1, board.width - 1); nx++) {
+                if (board.isRevealed(board.cell(nx, ny))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Collects the numbers with unknown neighbours, the frontier tiles and the incidence between them.
+     *
+     * @param board the board
+     */
+    private void collectFrontier(final MineBoard board) {
+        this.cells.clear();
+        this.constraints.clear();
+        this.needs.clear();
+        this.constraintStart.clear();
+        this.constraintCells.clear();
+        final IntList numbers = this.solver.frontier();
+        for (int i = 0; i < numbers.size(); i++) {
+            final int number = numbers.get(i);
+            final int start = this.constraintCells.size();
+            final int x = number % board.width;
+            final int y = number / board.width;
+            for (int ny = Math.max(y - 1, 0); ny <= Math.min(y + 1, board.height - 1); ny++) {
+                for (int nx = Math.max(x - 1, 0); nx <= Math.min(x + 1, board.width - 1); nx++) {
+                    final int cell = board.cell(nx, ny);
+                    if (!this.solver.isUnknown(cell)) {
+                        continue;
+                    }
+                    if (this.local[cell] < 0) {
+                        this.local[cell] = this.cells.size();
+                        this.cells.add(cell);
+                    }
+                    this.constraintCells.add(this.local[cell]);
+                }
+            }
+            if (this.constraintCells.size() == start) {
+                continue;
+            }
+            this.constraintStart.add(start);
+            this.constraints.add(number);
+            this.needs.add(this.solver.remaining(number));
+        }
+        this.constraintStart.add(this.constraintCells.size());
+
+        final int frontier = this.cells.size();
+        if (this.cellStart.length < frontier + 1) {
+            this.cellStart = new int[frontier * 2 + 1];
+        }
+        if (this.cellConstraints.length < this.constraintCells.size()) {
+            this.cellConstraints = new int[this.constraintCells.size() * 2];
+        }
+        Arrays.fill(this.cellStart, 0, frontier + 1, 0);
+        for (int i = 0; i < this.constraintCells.size(); i++) {
+            this.cellStart[this.constraintCells.get(i) + 1]++;
+        }
+        for (int i = 0; i < frontier; i++) {
+            this.cellStart[i + 1] += this.cellStart[i];
+        }
+        final int[] fill = Arrays.copyOf(this.cellStart, frontier);
+        for (int j = 0; j < this.constraints.size(); j++) {
+            for (int k = this.constraintStart.get(j); k < this.constraintStart.get(j + 1); k++) {
+                this.cellConstraints[fill[this.constraintCells.get(k)]++] = j;
+            }
+        }
+    }
+
+    /**
+     * Joins frontier tiles sharing a number into components.
+     *
+     * @return the number of components; afterwards {@link #parent} maps each tile to its component
+     */
+    private int buildComponents() {
+        final int frontier = this.cells.size();
+        if (this.parent.length < frontier) {
+            this.parent = new int[frontier * 2];
+        }
+        for (int i = 0; i < frontier; i++) {
+            this.parent[i] = i;
+        }
+        for (int j = 0; j < this.constraints.size(); j++) {
+            final int first = this.find(this.constraintCells.get(this.constraintStart.get(j)));
+            for (int k = this.constraintStart.get(j) + 1; k < this.constraintStart.get(j + 1); k++) {
+                final int other = this.find(this.constraintCells.get(k));
+                if (other != first) {
+                    this.parent[other] = first;
+                }
+            }
+        }
+        final int[] id = new int[frontier];
+        for (int i = 0; i < frontier; i++) {
+            id[i] = this.find(i);
+        }
+        int components = 0;
+        for (int i = 0; i < frontier; i++) {
+            if (id[i] == i) {
+                this.parent[i] = components++;
+            }
+        }
+        for (int i = 0; i < frontier; i++) {
+            this.parent[i] = this.parent[id[i]];
+        }
+        return components;
+    }
+
+    private int find(int i) {
+        while (this.parent[i] != i) {
+            this.parent[i] = this.parent[this.parent[i]];
+            i = this.parent[i];
+        }
+        return i;
+    }
+
+    /**
+     * Lists the tiles of a component in breadth-first order through its numbers, so that the numbers
+     * are completed early during enumeration.
+     *
+     * @param first          the local index of a tile of the component
+     * @param size           the number of tiles in the component
+     * @param seenCell       tiles already listed, shared by all components
+     * @param seenConstraint numbers already visited, shared by all components
+     * @return the local indices of its tiles
+     */
+    private int[] componentOrder(final int first, final int size, final boolean[] seenCell,
+                                 final boolean[] seenConstraint) {
+        final int[] result = new int[size];
+        int head = 0;
+        int tail = 0;
+        result[tail++] = first;
+        seenCell[first] = true;
+        while (head < tail) {
+            final int cell = result[head++];
+            for (int k = this.cellStart[cell]; k < this.cellStart[cell + 1]; k++) {
+                final int j = this.cellConstraints[k];
+                if (seenConstraint[j]) {
+                    continue;
+                }
+                seenConstraint[j] = true;
+                for (int m = this.constraintStart.get(j); m < this.constraintStart.get(j + 1); m++) {
+                    final int other = this.constraintCells.get(m);
+                    if (!seenCell[other]) {
+                        seenCell[other] = true;
+                        result[tail++] = other;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Builds the cache key of a component.
+     *
+     * @param members the local indices of its tiles, in search order
+     * @return the key
+     */
+    private Key signature(final int[] members) {
+        final IntList data = new IntList(members.length * 3);
+        for (final int member : members) {
+            data.add(this.cells.get(member));
+        }
+        for (final int member : members) {
+            for (int k = this.cellStart[member]; k < this.cellStart[member + 1]; k++) {
+                final int j = this.cellConstraints[k];
+                data.add(~this.constraints.get(j));
+                data.add(this.needs.get(j));
+            }
+        }
+        return new Key(Arrays.copyOf(data.array(), data.size()));
+    }
+
+    /**
+     * Counts the satisfying assignments of a component, by enumeration if it has at most
+     * {@link #ENUMERATE_LIMIT} tiles and fits the node budget, and by sampling otherwise.
+     *
+     * @param members the local indices of its tiles, in search order
+     * @return the counts
+     */
+    private Counts count(final int[] members) {
+        final int n = members.length;
+        this.prepareSearch(members);
+        final double[] ways = new double[n + 1];
+        if (n <= ENUMERATE_LIMIT) {
+            final double[] cellWays = new double[n * (n + 1)];
+            this.nodes = 0;
+            if (this.enumerate(0, 0, ways, cellWays)) {
+                normalise(ways, cellWays);
+                return new Counts(ways, cellWays, false);
+            }
+            this.prepareSearch(members);
+            Arrays.fill(ways, 0.0);
+        }
+        final int[] exponents = new int[1];
+        exponents[0] = Integer.MIN_VALUE;
+        for (int s = 0; s < SAMPLES; s++) {
+            this.sample(ways, null, exponents, null);
+        }
+        normalise(ways, null);
+        return new Counts(ways, null, true);
+    }
+
+    private void prepareSearch(final int[] members) {
+        final int n = members.length;
+        if (this.order.length < n) {
+            this.order = new int[n * 2];
+            this.assign = new byte[n * 2];
+        }
+        System.arraycopy(members, 0, this.order, 0, n);
+        if (this.need.length < this.constraints.size()) {
+            this.need = new int[this.constraints.size() * 2];
+            this.left = new int[this.constraints.size() * 2];
+        }
+        for (final int member : members) {
+            for (int k = this.cellStart[member]; k < this.cellStart[member + 1]; k++) {
+                final int j = this.cellConstraints[k];
+                this.need[j] = this.needs.get(j);
+                this.left[j] = this.constraintStart.get(j + 1) - this.constraintStart.get(j);
+            }
+        }
+    }
+
+    /**
+     * Checks whether a tile can take a value without making one of its numbers unsatisfiable.
+     */
+    private boolean canPlace(final int cell, final boolean mine) {
+        for (int k = this.cellStart[cell]; k < this.cellStart[cell + 1]; k++) {
+            final int j = this.cellConstraints[k];
+            if (mine ? this.need[j] <= 0 : this.need[j] >= this.left[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void place(final int cell, final boolean mine, final int delta) {
+        for (int k = this.cellStart[cell]; k < this.cellStart[cell + 1]; k++) {
+            final int j = this.cellConstraints[k];
+            this.left[j] -= delta;
+            if (mine) {
+                this.need[j] -= delta;
+            }
+        }
+    }
+
+    /**
+     * Enumerates the assignments of the remaining tiles of a component depth first.
+     *
+     * @return {@code false} if the node budget ran out
+     */
+    private boolean enumerate(final int pos, final int mines, final double[] ways, final double[] cellWays) {
+        if (++this.nodes > NODE_BUDGET) {
+            return false;
+        }
+        final int n = ways.length - 1;
+        if (pos == n) {
+            ways[mines]++;
+            for (int p = 0; p < n; p++) {
+                if (this.assign[p] == 1) {
+                    cellWays[p * (n + 1) + mines]++;
+                }
+            }
+            return true;
+        }
+        final int cell = this.order[pos];
+        for (int value = 0; value <= 1; value++) {
+            final boolean mine = value == 1;
+            if (!this.canPlace(cell, mine)) {
+                continue;
+            }
+            this.place(cell, mine, 1);
+            this.assign[pos] = (byte) value;
+            final boolean done = this.enumerate(pos + 1, mines + value, ways, cellWays);
+            this.place(cell, mine, -1);
+            if (!done) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Draws one assignment of a component, choosing uniformly among the values that keep its numbers
+     * satisfiable. The assignment is weighted by two to the number of free choices, which makes the
+     * weighted counts unbiased estimates of the true counts.
+     *
+     * @param ways      weights by number of mines, scaled by two to the minus {@code exponents[0]}
+     * @param cellMines weight of each local tile being a mine, or {@code null}
+     * @param exponents the largest number of free choices seen so far, updated as samples come in
+     * @param factor    extra weight by number of mines, or {@code null}
+     */
+    private void sample(final double[] ways, final double[] cellMines, final int[] exponents, final double[] factor) {
+        final int n = ways.length - 1;
+        int choices = 0;
+        int mines = 0;
+        int pos = 0;
+        for (; pos < n; pos++) {
+            final int cell = this.order[pos];
+            final boolean safe = this.canPlace(cell, false);
+            final boolean mine = this.canPlace(cell, true);
+            if (!safe && !mine) {
+                break;
+            }
+            final boolean value = safe && mine ? this.random.nextBoolean() : mine;
+            if (safe && mine) {
+                choices++;
+            }
+            this.place(cell, value, 1);
+            this.assign[pos] = (byte) (value ? 1 : 0);
+            if (value) {
+                mines++;
+            }
+        }
+        final boolean complete = pos == n;
+        while (--pos >= 0) {
+            this.place(this.order[pos], this.assign[pos] == 1, -1);
+        }
+        if (!complete) {
+            return;
+        }
+        if (choices > exponents[0]) {
+            final double scale = exponents[0] == Integer.MIN_VALUE ? 0.0 : Math.scalb(1.0, exponents[0] - choices);
+            for (int k = 0; k < ways.length; k++) {
+                ways[k] *= scale;
+            }
+            if (cellMines != null) {
+                for (int p = 0; p < n; p++) {
+                    cellMines[p] *= scale;
+                }
+            }
+            exponents[0] = choices;
+        }
+        final double weight = Math.scalb(1.0, choices - exponents[0]) * (factor == null ? 1.0 : factor[mines]);
+        ways[mines] += weight;
+        if (cellMines != null) {
+            for (int p = 0; p < n; p++) {
+                if (this.assign[p] == 1) {
+                    cellMines[p] += weight;
+                }
+            }
+        }
+    }
+
+    /**
+     * Scales counts so that the largest count by number of mines is 1. Probabilities only depend on
+     * ratios within a component.
+     */
+    private static void normalise(final double[] ways, final double[] cellWays) {
+        double max = 0.0;
+        for (final double w : ways) {
+            max = Math.max(max, w);
+        }
+        if (max == 0.0) {
+            return;
+        }
+        for (int k = 0; k < ways.length; k++) {
+            ways[k] /= max;
+        }
+        if (cellWays != null) {
+            for (int k = 0; k < cellWays.length; k++) {
+                cellWays[k] /= max;
+            }
+        }
+    }
+
+    /**
+     * Weighs each component's mine counts by the number of ways the rest of the board can hold the
+     * remaining mines, combining the components exactly.
+     *
+     * @return for each component, the weight of each of its mine counts; then, as the last entry, the
+     * probability of a mine on a tile away from the frontier
+     */
+    private static double[][] exactWeights(final Counts[] counts, final int frontier, final int interior,
+                                           final int remaining) {
+        final int n = counts.length;
+        // binomial[u]: ways to place the mines not used by the frontier, when the frontier uses u of them
+        final double[] binomial = new double[frontier + 1];
+        final double[] logs = new double[frontier + 1];
+        double max = Double.NEGATIVE_INFINITY;
+        for (int u = 0; u <= frontier; u++) {
+            final int r = remaining - u;
+            logs[u] = r < 0 || r > interior ? Double.NEGATIVE_INFINITY : logBinomial(interior, r);
+            max = Math.max(max, logs[u]);
+        }
+        for (int u = 0; u <= frontier; u++) {
+            binomial[u] = Math.exp(logs[u] - max);
+        }
+        // suffix[c][u]: weight of the components from c on and the interior, given u mines used before c
+        final double[][] suffix = new double[n + 1][];
+        suffix[n] = binomial;
+        for (int c = n - 1; c >= 0; c--) {
+            final double[] ways = counts[c].ways();
+            final double[] next = suffix[c + 1];
+            final double[] current = new double[frontier + 1];
+            for (int u = 0; u <= frontier; u++) {
+                double sum = 0.0;
+                for (int k = 0; k < ways.length && u + k <= frontier; k++) {
+                    sum += ways[k] * next[u + k];
+                }
+                current[u] = sum;
+            }
+            scaleToOne(current);
+            suffix[c] = current;
+        }
+        final double[][] weights = new double[n + 1][];
+        double[] prefix = new double[frontier + 1];
+        prefix[0] = 1.0;
+        for (int c = 0; c < n; c++) {
+            final double[] ways = counts[c].ways();
+            final double[] next = suffix[c + 1];
+            final double[] weight = new double[ways.length];
+            for (int k = 0; k < ways.length; k++) {
+                double sum = 0.0;
+                for (int u = 0; u + k <= frontier; u++) {
+                    sum += prefix[u] * next[u + k];
+                }
+                weight[k] = sum;
+            }
+            weights[c] = weight;
+            final double[] grown = new double[frontier + 1];
+            for (int u = 0; u <= frontier; u++) {
+                if (prefix[u] == 0.0) {
+                    continue;
+                }
+                for (int k = 0; k < ways.length && u + k <= frontier; k++) {
+                    grown[u + k] += prefix[u] * ways[k];
+                }
+            }
+            scaleToOne(grown);
+            prefix = grown;
+        }
+        double total = 0.0;
+        double mines = 0.0;
+        for (int u = 0; u <= frontier; u++) {
+            final double w = prefix[u] * binomial[u];
+            total += w;
+            mines += w * (remaining - u);
+        }
+        weights[n] = new double[]{interior == 0 || total == 0.0 ? 0.0 : mines / total / interior};
+        return weights;
+    }
+
+    /**
+     * Weighs each component's mine counts assuming the tiles outside it hold mines independently at the
+     * average density of the unknown tiles.
+     *
+     * @return the weights as for {@link #exactWeights(Counts[], int, int, int)}
+     */
+    private static double[][] densityWeights(final Counts[] counts, final int frontier, final int interior,
+                                             final int remaining) {
+        final int n = counts.length;
+        final double density = Math.min(Math.max((double) remaining / (frontier + interior), 1e-9), 1 - 1e-9);
+        final double ratio = density / (1 - density);
+        final double[][] weights = new double[n + 1][];
+        double expected = 0.0;
+        for (int c = 0; c < n; c++) {
+            final double[] ways = counts[c].ways();
+            final double[] weight = new double[ways.length];
+            double total = 0.0;
+            double mines = 0.0;
+            double factor = 1.0;
+            for (int k = 0; k < ways.length; k++) {
+                weight[k] = factor;
+                total += ways[k] * factor;
+                mines += ways[k] * factor * k;
+                factor *= ratio;
+                if (factor > 1e200) {
+                    // rescale to stay finite; only ratios within a component matter
+                    for (int j = 0; j <= k; j++) {
+                        weight[j] /= factor;
+                    }
+                    total /= factor;
+                    mines /= factor;
+                    factor = 1.0;
+                }
+            }
+            weights[c] = weight;
+            expected += total == 0.0 ? 0.0 : mines / total;
+        }
+        weights[n] = new double[]{interior == 0 ? 0.0 : Math.min(Math.max((remaining - expected) / interior, 0.0), 1.0)};
+        return weights;
+    }
+
+    private static void scaleToOne(final double[] values) {
+        double max = 0.0;
+        for (final double v : values) {
+            max = Math.max(max, v);
+        }
+        if (max > 0.0) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] /= max;
+            }
+        }
+    }
+
+    /**
+     * Returns the natural logarithm of the binomial coefficient {@code n} choose {@code k}.
+     */
+    static double logBinomial(final int n, final int k) {
+        return logFactorial(n) - logFactorial(k) - logFactorial(n - k);
+    }
+
+    private static double logFactorial(final int n) {
+        if (n < 16) {
+            double f = 1.0;
+            for (int i = 2; i <= n; i++) {
+                f *= i;
+            }
+            return Math.log(f);
+        }
+        // Stirling series, accurate to double precision for n >= 16
+        final double x = n + 1.0;
+        return (x - 0.5) * Math.log(x) - x + 0.5 * Math.log(2 * Math.PI) + 1.0 / (12 * x) - 1.0 / (360 * x * x * x);
+    }
+
+    /**
+     * Sets the probabilities of the tiles of a component.
+     *
+     * @param members the local indices of its tiles, in search order
+     * @param counts  its counts
+     * @param weight  the weight of each of its mine counts
+     */
+    private void assignProbabilities(final int[] members, final Counts counts, final double[] weight) {
+        final int n = members.length;
+        if (counts.sampled()) {
+            this.prepareSearch(members);
+            final double[] ways = new double[n + 1];
+            final double[] cellMines = new double[n];
+            final int[] exponents = {Integer.MIN_VALUE};
+            for (int s = 0; s < SAMPLES; s++) {
+                this.sample(ways, cellMines, exponents, weight);
+            }
+            double total = 0.0;
+            for (final double w : ways) {
+                total += w;
+            }
+            for (int p = 0; p < n; p++) {
+                this.probabilities[this.cells.get(members[p])] = total == 0.0 ? 0.5 : cellMines[p] / total;
+            }
+            return;
+        }
+        final double[] ways = counts.ways();
+        final double[] cellWays = counts.cellWays();
+        double total = 0.0;
+        for (int k = 0; k <= n; k++) {
+            total += ways[k] * weight[k];
+        }
+        for (int p = 0; p < n; p++) {
+            double mines = 0.0;
+            for (int k = 0; k <= n; k++) {
+                mines += cellWays[p * (n + 1) + k] * weight[k];
+            }
+            this.probabilities[this.cells.get(members[p])] = total == 0.0 ? 0.5 : mines / total;
+        }
+    }
+}
@@ -1,15 +1,14 @@
 package dev.jcps;
 
-import java.awt.*;
-import java.awt.image.ImageObserver;
-
 /**
  * Represents a tile in a minesweeper game.
  * <p>
  * Each tile can be in different states such as hidden, flagged, revealed, or containing a mine.
  * </p>
  * <p>
- * This class provides methods for manipulating and drawing the tile.
+ * A MineTile is a view of a single tile stored in a {@link MineBoard}; it holds no state of its own, so
+ * views can be created and discarded freely. It holds no AWT state so that boards can be created by
+ * {@link MineEngine} on a headless JVM; drawing is left to the view.
  * </p>
  *
  * @since 1.0
@@ -56,60 +55,60 @@ class MineTile {
     public static final int NUM_IMAGES = 16;
 
     /**
-     * Array storing images for different tile states.
-     */
-    static Image[] images;
-
-    static {
-        MineTile.images = new Image[MineTile.NUM_IMAGES];
-    }
-
-    /**
-     * Flag indicating whether the tile has been touched.
-     */
-    boolean touched;
-
-    /**
-     * The number of mines adjacent to this tile.
+     * The board holding the tile.
      */
-    int number;
+    private final MineBoard board;
 
     /**
-     * The current index representing the state of the tile.
+     * The cell number of the tile on the board.
      */
-    int index;
+    private final int cell;
 
     /**
-     * The previous index representing the state of the tile.
+     * Constructs a view of a tile on a board.
+     *
+     * @param board The board holding the tile.
+     * @param cell  The cell number of the tile.
      */
-    int oldIndex;
+    MineTile(final MineBoard board, final int cell) {
+        this.board = board;
+        this.cell = cell;
+    }
 
     /**
-     * The x-coordinate of the tile.
+     * Returns the x-coordinate of the tile.
+     *
+     * @return the x-coordinate
      */
-    int x;
+    public int x() {
+        return this.cell % this.board.width;
+    }
 
     /**
-     * The y-coordinate of the tile.
+     * Returns the y-coordinate of the tile.
+     *
+     * @return the y-coordinate
      */
-    int y;
+    public int y() {
+        return this.cell / this.board.width;
+    }
 
     /**
-     * Flag indicating whether the tile has been revealed.
+     * Returns the number of mines adjacent to this tile.
+     *
+     * @return the number of adjacent mines, or -1 if the tile is a mine
      */
-    private boolean revealed;
+    public int number() {
+        return this.board.number(this.cell);
+    }
 
     /**
-     * Constructs a MineTile object.
+     * Returns the current index representing the state of the tile.
      *
-     * @param b True if the tile contains a mine, false otherwise.
-     */
-    public MineTile(final boolean b) {
-        this.number = (b ? -1 : 0);
-        this.touched = false;
-        this.index = MineTile.HIDDEN;
-        this.oldIndex = this.index;
-        this.revealed = false;
+     * @return the display index
+     */
+    public int index() {
+        return this.board.index(this.cell);
     }
 
     /**
@@ -118,7 +117,7 @@ class MineTile {
      * @return True if the tile contains a mine, false otherwise.
      */
     public boolean isMine() {
-        return this.number < 0;
+        return this.board.isMine(this.cell);
     }
 
     /**
@@ -127,7 +126,8 @@ class MineTile {
      * @return True if the tile has been revealed, false otherwise.
      */
     public boolean revealed() {
-        return this.index != MineTile.FLAG && this.index != MineTile.QMARK && this.index != MineTile.HIDDEN;
+        final int index = this.index();
+        return index != MineTile.FLAG && index != MineTile.QMARK && index != MineTile.HIDDEN;
     }
 
     /**
@@ -136,7 +136,7 @@ class MineTile {
      * @return True if the tile is revealed, false otherwise.
      */
     public boolean getRevealed() {
-        return this.revealed;
+        return this.board.isRevealed(this.cell);
     }
 
     /**
@@ -145,17 +145,7 @@ class MineTile {
      * @param status True to set the tile as revealed, false otherwise.
      */
     public void setRevealed(boolean status) {
-        this.revealed = status;
-    }
-
-
-    /**
-     * Touches the tile, indicating it has been interacted with.
-     *
-     * @param touched True to indicate the tile has been touched, false otherwise.
-     */
-    public void touch(final boolean touched) {
-        this.touched = touched;
+        this.board.setRevealed(this.cell, status);
     }
 
     /**
@@ -164,9 +154,7 @@ class MineTile {
      * @param index The index to set for the tile.
      */
     public void touch(final int index) {
-        this.oldIndex = this.index;
-        this.touch(true);
-        this.index = index;
+        this.board.setIndex(this.cell, index);
     }
 
     /**
@@ -175,42 +163,13 @@ class MineTile {
      * If the tile is marked with a question mark, it will be marked as a question mark with a potential mine underneath.
      */
     public void touch() {
-        if (this.revealed || this.index == MineTile.FLAG) {
-            return;
-        }
-        if (this.index == MineTile.HIDDEN) {
-            this.touch(0);
-            return;
-        }
-        if (this.index == MineTile.QMARK) {
-            this.touch(MineTile.QMARKP);
-        }
+        this.board.press(this.cell);
     }
 
     /**
-     * Retouches the tile, reverting it to its previous state.
+     * Retouches the tile, reverting a pressed tile to its previous state.
      */
     public void retouch() {
-        if (this.revealed || this.index == MineTile.FLAG) {
-            return;
-        }
-        this.index = this.oldIndex;
-        this.touched = true;
-    }
-
-    /**
-     * Draws the tile with its current index at the specified location.
-     *
-     * @param graphics      The graphics context to draw the tile.
-     * @param x             The x-coordinate of the tile's top-left corner.
-     * @param y             The y-coordinate of the tile's top-left corner.
-     * @param imageObserver An object waiting for notification about image updates.
-     */
-    public void draw(final Graphics graphics, final int x, final int y, final ImageObserver imageObserver) {
-        if (MineTile.images[this.index] == null) {
-            return;
-        }
-        graphics.drawImage(MineTile.images[this.index], x, y, MineTile.images[this.index].getWidth(imageObserver),
-                MineTile.images[this.index].getHeight(imageObserver), new Color(128, 128, 128), imageObserver);
+        this.board.release(this.cell);
     }
 }
@@ -0,0 +1,259 @@
+package dev.jcps;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator;
+
+/**
+ * Finds board seeds that can be solved from the first click by deduction alone.
+ * <p>
+ * A no-guess board is an ordinary safe-opening board: its mines are placed around the first click from a
+ * seed, exactly as {@link MineEngine} does. Candidate seeds are played by a {@link Solver} on a private
+ * engine, and the first one the solver wins without guessing is kept. Candidates are checked in parallel on
+ * the common fork/join pool, in batches, and the earliest winning candidate of the stream is chosen, so
+ * the result does not depend on the number of cores.
+ * </p>
+ * <p>
+ * To hide the search entirely, winning seeds are also generated in the background and queued per board
+ * size and first clicked cell: the middle of the board, and every cell the player has opened a no-guess
+ * game with. Only the few most recently used queues are kept.
+ * </p>
+ * <p>
+ * A generator is used from the thread of its engine; only the background work runs elsewhere.
+ * </p>
+ *
+ * @since 1.1
+ */
+final class NoGuessGenerator {
+    /**
+     * The number of candidate seeds tried before giving up on a board.
+     */
+    static final int MAX_CANDIDATES = 4096;
+    /**
+     * The number of seeds kept ready per board size and first cell.
+     */
+    static final int QUEUE_SIZE = 4;
+    /**
+     * The number of board size and first cell combinations with a queue.
+     */
+    private static final int MAX_QUEUES = 8;
+
+    private static final Logger logger = LoggerFactory.getLogger(NoGuessGenerator.class);
+
+    /**
+     * The random number generator algorithm of the boards.
+     */
+    private final String algorithm;
+    /**
+     * The layout generator of the boards.
+     */
+    private final MineLayoutGenerator layoutGenerator;
+    /**
+     * The root of the candidate streams of the background work.
+     */
+    private final SplittableRandom random;
+    /**
+     * Checks candidates, one engine and solver per thread.
+     */
+    private final ThreadLocal<Verifier> verifiers;
+    /**
+     * Pre-generated seeds in least recently used order. Guarded by the map itself.
+     */
+    private final LinkedHashMap<Key, Ready> queues;
+
+    /**
+     * Constructs a generator for boards laid out like those of an engine.
+     *
+     * @param algorithm       the random number generator algorithm of the engine
+     * @param layoutGenerator the layout generator of the engine
+     * @param seed            the seed of the background candidate streams
+     */
+    NoGuessGenerator(final @NotNull String algorithm, final @NotNull MineLayoutGenerator layoutGenerator,
+                     final long seed) {
+        this.algorithm = algorithm;
+        this.layoutGenerator = layoutGenerator;
+        this.random = new SplittableRandom(seed);
+        this.verifiers = ThreadLocal.withInitial(this::newVerifier);
+        this.queues = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, Ready> eldest) {
+                return this.size() > MAX_QUEUES;
+            }
+        };
+    }
+
+    private Verifier newVerifier() {
+        final MineEngine engine = new MineEngine();
+        engine.setRandomAlgorithm(this.algorithm);
+        engine.setLayoutGenerator(this.layoutGenerator);
+        engine.setSafeOpening(true);
+        return new Verifier(engine, new Solver(engine));
+    }
+
+    /**
+     * Returns a no-guess seed, from the queue if one is ready and otherwise by searching, then refills the
+     * queue in the background.
+     *
+     * @param game       the board size and mine count
+     * @param cell       the first clicked cell
+     * @param candidates the source of candidate seeds when searching
+     * @return the seed of a safe-opening board won by deduction from the cell, or of the last candidate
+     * tried if none was found
+     */
+    long take(final @NotNull Game game, final int cell, final @NotNull RandomGenerator candidates) {
+        final Key key = new Key(game.width(), game.height(), game.mines(), cell);
+        Long seed;
+        synchronized (this.queues) {
+            final Ready ready = this.queues.get(key);
+            seed = ready == null ? null : ready.seeds.poll();
+        }
+        if (seed == null) {
+            seed = this.search(game, cell, candidates);
+        }
+        this.prefetch(game, cell);
+        return seed;
+    }
+
+    /**
+     * Searches a stream of candidates in parallel for the first no-guess seed.
+     *
+     * @param game       the board size and mine count
+     * @param cell       the first clicked cell
+     * @param candidates the source of candidate seeds, only used from the calling thread
+     * @return the seed of a safe-opening board won by deduction from the cell, or of the last candidate
+     * tried if none was found
+     */
+    long search(final @NotNull Game game, final int cell, final @NotNull RandomGenerator candidates) {
+        final long started = System.nanoTime();
+        final ForkJoinPool pool = ForkJoinPool.commonPool();
+        final int batch = pool.getParallelism() + 1;
+        final long[] seeds = new long[batch];
+        final List<Callable<Boolean>> tasks = new ArrayList<>(batch);
+        long seed = 0L;
+        for (int tried = 0; tried < MAX_CANDIDATES; tried += batch) {
+            tasks.clear();
+            for (int i = 0; i < batch; i++) {
+                final long candidate = candidates.nextLong();
+                seeds[i] = candidate;
+                tasks.add(() -> this.isGuessFree(game, cell, candidate));
+            }
+            final List<Future<Boolean>> results = pool.invokeAll(tasks);
+            for (int i = 0; i < batch; i++) {
+                seed = seeds[i];
+                if (passed(results.get(i))) {
+                    logger.debug("No-guess board found after {} candidates in {} ms", tried + i + 1,
+                            (System.nanoTime() - started) / 1_000_000);
+                    return seed;
+                }
+            }
+        }
+        logger.warn("No guess-free {}x{} board with {} mines found after {} candidates", game.width(),
+                game.height(), game.mines(), MAX_CANDIDATES);
+        return seed;
+    }
+
+    private static boolean passed(final Future<Boolean> result) {
+        try {
+            return result.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (final ExecutionException e) {
+            logger.warn("No-guess check failed", e.getCause());
+            return false;
+        }
+    }
+
+    /**
+     * Fills the queue of a board size and first cell in the background, one task per missing seed.
+     *
+     * @param game the board size and mine count
+     * @param cell the first clicked cell
+     */
+    void prefetch(final @NotNull Game game, final int cell) {
+        final Key key = new Key(game.width(), game.height(), game.mines(), cell);
+        final int missing;
+        final Ready ready;
+        synchronized (this.queues) {
+            ready = this.queues.computeIfAbsent(key, k -> new Ready());
+            missing = QUEUE_SIZE - ready.seeds.size() - ready.pending;
+            ready.pending += Math.max(missing, 0);
+        }
+        for (int i = 0; i < missing; i++) {
+            final SplittableRandom candidates = this.random.split();
+            ForkJoinPool.commonPool().execute(() -> this.fill(game, cell, ready, candidates));
+        }
+    }
+
+    /**
+     * Background task adding one seed to a queue.
+     */
+    private void fill(final Game game, final int cell, final Ready ready, final SplittableRandom candidates) {
+        long found = 0L;
+        boolean passed = false;
+        try {
+            for (int tried = 0; tried < MAX_CANDIDATES && !passed; tried++) {
+                found = candidates.nextLong();
+                passed = this.isGuessFree(game, cell, found);
+            }
+        } finally {
+            synchronized (this.queues) {
+                ready.pending--;
+                if (passed) {
+                    ready.seeds.add(found);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks a candidate by letting the solver play it.
+     *
+     * @param game the board size and mine count
+     * @param cell the first clicked cell
+     * @param seed the candidate seed
+     * @return {@code true} if the solver wins the board without guessing
+     */
+    boolean isGuessFree(final @NotNull Game game, final int cell, final long seed) {
+        final Verifier verifier = this.verifiers.get();
+        final MineEngine engine = verifier.engine;
+        if (!engine.newGame(game, seed)) {
+            return false;
+        }
+        engine.reveal(cell % game.width(), cell / game.width());
+        verifier.solver.play();
+        return engine.state() == MineEngine.WON;
+    }
+
+    /**
+     * A board size, mine count and first clicked cell.
+     */
+    private record Key(int width, int height, int mines, int cell) {
+    }
+
+    /**
+     * An engine and the solver playing it.
+     */
+    private record Verifier(MineEngine engine, Solver solver) {
+    }
+
+    /**
+     * The seeds ready for one key and the number still being searched for.
+     */
+    private static final class Ready {
+        final ArrayDeque<Long> seeds = new ArrayDeque<>(QUEUE_SIZE);
+        int pending;
+    }
+}
@@ -0,0 +1,190 @@
+package dev.jcps;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The statistics of one player on one board size, updated game by game.
+ * <p>
+ * Every figure is kept as a running aggregate: counters, sums, the best values and a {@link TimeDigest}
+ * of the winning times. Recording a game and reading any statistic take constant time, however many
+ * games were played.
+ * </p>
+ * <p>
+ * The board value per second, 3BV/s, divides the {@linkplain MineEngine#bbbv() 3BV} of won boards by the
+ * time taken. Wins recorded without a 3BV value do not count toward it. Times are kept in milliseconds.
+ * </p>
+ *
+ * @since 1.1
+ */
+public final class PlayerStats {
+    private long games;
+    private long wins;
+    private int streak;
+    private int bestStreak;
+    private long bbbvTotal;
+    private long bbbvTime;
+    private double bestBbbvPerSecond;
+    private TimeDigest times;
+
+    /**
+     * Constructs the statistics of a player who has not played yet.
+     */
+    PlayerStats() {
+        this.times = new TimeDigest();
+    }
+
+    /**
+     * Adds a finished game.
+     *
+     * @param won  {@code true} if the game was won
+     * @param time the time played in milliseconds
+     * @param bbbv the 3BV of the board, or 0 if unknown
+     */
+    void record(final boolean won, final long time, final int bbbv) {
+        this.games++;
+        if (!won) {
+            this.streak = 0;
+            return;
+        }
+        this.wins++;
+        this.streak++;
+        this.bestStreak = Math.max(this.bestStreak, this.streak);
+        this.times.add(time);
+        if (bbbv > 0) {
+            final long millis = Math.max(time, 1L);
+            this.bbbvTotal += bbbv;
+            this.bbbvTime += millis;
+            this.bestBbbvPerSecond = Math.max(this.bestBbbvPerSecond, bbbv * 1000.0 / millis);
+        }
+    }
+
+    /**
+     * Returns the number of games played.
+     *
+     * @return the number of games
+     */
+    public long games() {
+        return this.games;
+    }
+
+    /**
+     * Returns the number of games won.
+     *
+     * @return the number of wins
+     */
+    public long wins() {
+        return this.wins;
+    }
+
+    /**
+     * Returns the fraction of games won.
+     *
+     * @return the win rate, from 0 to 1
+     */
+    public double winRate() {
+        return this.games == 0 ? 0.0 : (double) this.wins / this.games;
+    }
+
+    /**
+     * Returns the number of games won in a row up to the last game.
+     *
+     * @return the current winning streak
+     */
+    public int streak() {
+        return this.streak;
+    }
+
+    /**
+     * Returns the longest run of games won in a row.
+     *
+     * @return the best winning streak
+     */
+    public int bestStreak() {
+        return this.bestStreak;
+    }
+
+    /**
+     * Estimates a percentile of the winning times.
+     *
+     * @param q the fraction of wins that were faster, from 0 to 1; 0.5 gives the median
+     * @return the time in milliseconds, or {@link Double#NaN} if no game was won
+     */
+    public double timePercentile(final double q) {
+        return this.times.quantile(q);
+    }
+
+    /**
+     * Returns the 3BV per second over all won games with a known 3BV.
+     *
+     * @return the average 3BV/s, or 0 if there is none
+     */
+    public double bbbvPerSecond() {
+        return this.bbbvTime == 0 ? 0.0 : this.bbbvTotal * 1000.0 / this.bbbvTime;
+    }
+
+    /**
+     * Returns the highest 3BV per second of a single won game.
+     *
+     * @return the best 3BV/s, or 0 if there is none
+     */
+    public double bestBbbvPerSecond() {
+        return this.bestBbbvPerSecond;
+    }
+
+    /**
+     * Writes the statistics.
+     *
+     * @param out the output
+     * @throws IOException if writing fails
+     */
+    void write(final DataOutput out) throws IOException {
+        out.writeLong(this.games);
+        out.writeLong(this.wins);
+        out.writeInt(this.streak);
+        out.writeInt(this.bestStreak);
+        out.writeLong(this.bbbvTotal);
+        out.writeLong(this.bbbvTime);
+        out.writeDouble(this.bestBbbvPerSecond);
+        this.times.write(out);
+    }
+
+    /**
+     * Reads statistics written by {@link #write(DataOutput)}.
+     *
+     * @param in the input
+     * @return the statistics
+     * @throws IOException if reading fails
+     */
+    static PlayerStats read(final DataInput in) throws IOException {
+        final PlayerStats stats = new PlayerStats();
+        stats.games = in.readLong();
+        stats.wins = in.readLong();
+        stats.streak = in.readInt();
+        stats.bestStreak = in.readInt();
+        stats.bbbvTotal = in.readLong();
+        stats.bbbvTime = in.readLong();
+        stats.bestBbbvPerSecond = in.readDouble();
+        stats.times = TimeDigest.read(in);
+        return stats;
+    }
+
+    /**
+     * Returns an independent copy.
+     *
+     * @return the copy
+     */
+    PlayerStats copy() {
+        final PlayerStats copy = new PlayerStats();
+        copy.games = this.games;
+        copy.wins = this.wins;
+        copy.streak = this.streak;
+        copy.bestStreak = this.bestStreak;
+        copy.bbbvTotal = this.bbbvTotal;
+        copy.bbbvTime = this.bbbvTime;
+        copy.bestBbbvPerSecond = this.bestBbbvPerSecond;
+        copy.times = this.times.copy();
+        return copy;
+    }
+}
@@ -0,0 +1,310 @@
+package dev.jcps;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A recorded game: the board it was played on and the input events that played it.
+ * <p>
+ * A replay holds everything needed to lay out the same board again, the game size, the seed, whether the
+ * mines were placed after the first click, and the random number generator algorithm, followed by the
+ * input events and the recorded result. It is written by {@link ReplayRecorder} in a compact binary form:
+ * </p>
+ * <pre>
+ * "JMR" version
+ * varint width, varint height, varint mines
+ * 8-byte seed, flags byte, varint length and ASCII name of the random algorithm
+ * varint event count, events
+ * result byte, varint time in milliseconds
+ * </pre>
+ * <p>
+ * Each event is a varint holding the event type in its low two bits and the zigzag-encoded difference to
+ * the previous event's cell above them, followed by a varint of the milliseconds since the previous event.
+ * Clicks usually land close together and come quickly, so most events take two or three bytes.
+ * </p>
+ *
+ * @since 1.1
+ */
+public final class Replay {
+    /**
+     * A tile pressed with the left or middle button, shown sunken until released.
+     */
+    public static final int PRESS = 0;
+    /**
+     * A tile revealed by releasing the left button.
+     */
+    public static final int RELEASE = 1;
+    /**
+     * A middle button release, revealing the neighbours of a tile whose flags are all placed.
+     */
+    public static final int CHORD = 2;
+    /**
+     * A right click, cycling a tile through flag, question mark and hidden.
+     */
+    public static final int FLAG = 3;
+
+    /**
+     * Format version.
+     */
+    static final int VERSION = 1;
+    /**
+     * Flag set if the mines were placed after the first click.
+     */
+    static final int SAFE_OPENING = 1;
+
+    private final Game game;
+    private final long seed;
+    private final boolean safeOpening;
+    private final String algorithm;
+    private final int[] types;
+    private final boolean[] chords;
+    private final int[] cells;
+    private final long[] times;
+    private final int result;
+    private final long time;
+
+    private Replay(final Game game, final long seed, final boolean safeOpening, final String algorithm,
+                   final int[] types, final boolean[] chords, final int[] cells, final long[] times, final int result,
+                   final long time) {
+        this.game = game;
+        this.seed = seed;
+        this.safeOpening = safeOpening;
+        this.algorithm = algorithm;
+        this.types = types;
+        this.chords = chords;
+        this.cells = cells;
+        this.times = times;
+        this.result = result;
+        this.time = time;
+    }
+
+    /**
+     * Decodes a replay.
+     *
+     * @param data the replay as written by {@link ReplayRecorder}
+     * @return the replay
+     * @throws IOException if the data is not a well-formed replay, or its board is outside the sizes the game
+     *                     allows
+     */
+    public static @NotNull Replay read(final byte @NotNull [] data) throws IOException {
+        final Reader in = new Reader(data);
+        if (data.length < 4 || data[0] != 'J' || data[1] != 'M' || data[2] != 'R') {
+            throw new IOException("Not a JMine replay");
+        }
+        in.position = 3;
+        if (in.readByte() != VERSION) {
+            throw new IOException("Unsupported replay version " + data[3]);
+        }
+        final int width = in.readVarInt();
+        final int height = in.readVarInt();
+        final int mines = in.readVarInt();
+        // checked before anything is sized from them, so a damaged file cannot ask for a huge board
+        if (width < JMine.MIN_X || width > JMine.MAX_X || height < JMine.MIN_Y || height > JMine.MAX_Y) {
+            throw new IOException("Bad board size " + width + "x" + height);
+        }
+        if (mines >= width * height) {
+            throw new IOException("Bad mine count " + mines + " on " + width + "x" + height);
+        }
+        final long seed = in.readLong();
+        final int flags = in.readByte();
+        final int length = in.readVarInt();
+        if (length > 64 || in.position + length > data.length) {
+            throw new IOException("Bad random algorithm name");
+        }
+        final String algorithm = new String(data, in.position, length, StandardCharsets.US_ASCII);
+        in.position += length;
+        final int count = in.readVarInt();
+        if (count > data.length) {
+            throw new IOException("Bad event count " + count);
+        }
+        final int size = width * height;
+        final int[] types = new int[count];
+        final int[] cells = new int[count];
+        final long[] times = new long[count];
+        int cell = 0;
+        long at = 0L;
+        for (int i = 0; i < count; i++) {
+            final long head = in.readVarLong();
+            cell += (int) zigzag(head >>> 2);
+            at += in.readVarLong();
+            if (cell < 0 || cell >= size) {
+                throw new IOException("Event " + i + " is off the board");
+            }
+            types[i] = (int) (head & 3);
+            cells[i] = cell;
+            times[i] = at;
+        }
+        // a press belongs to a chord if the next event that is not a press is one, found in one pass backwards
+        final boolean[] chords = new boolean[count];
+        boolean chord = false;
+        for (int i = count - 1; i >= 0; i--) {
+            if (types[i] != PRESS) {
+                chord = types[i] == CHORD;
+            }
+            chords[i] = chord;
+        }
+        final int result = in.readByte();
+        final long time = in.readVarLong();
+        return new Replay(new Game(width, height, mines), seed, (flags & SAFE_OPENING) != 0, algorithm, types,
+                chords, cells, times, result, time);
+    }
+
+    private static long zigzag(final long n) {
+        return (n >>> 1) ^ -(n & 1);
+    }
+
+    /**
+     * Returns the board size and mine count.
+     *
+     * @return the game
+     */
+    public @NotNull Game game() {
+        return this.game;
+    }
+
+    /**
+     * Returns the seed the board was laid out from.
+     *
+     * @return the seed
+     */
+    public long seed() {
+        return this.seed;
+    }
+
+    /**
+     * Returns whether the mines were placed after the first click.
+     *
+     * @return {@code true} for a safe-opening or no-guess game
+     */
+    public boolean safeOpening() {
+        return this.safeOpening;
+    }
+
+    /**
+     * Returns the random number generator algorithm the board was laid out with.
+     *
+     * @return the algorithm name
+     */
+    public @NotNull String algorithm() {
+        return this.algorithm;
+    }
+
+    /**
+     * Returns the number of input events.
+     *
+     * @return the event count
+     */
+    public int events() {
+        return this.types.length;
+    }
+
+    /**
+     * Returns the type of an event.
+     *
+     * @param i the event number
+     * @return {@link #PRESS}, {@link #RELEASE}, {@link #CHORD} or {@link #FLAG}
+     */
+    public int type(final int i) {
+        return this.types[i];
+    }
+
+    /**
+     * Checks if an event is a chord, or a press that belongs to one: the middle button, pressing a tile and its
+     * neighbours.
+     *
+     * @param i the event number
+     * @return {@code true} for a {@link #CHORD}, or a {@link #PRESS} if the next event that is not a press is
+     * a chord
+     */
+    public boolean isChord(final int i) {
+        return this.chords[i];
+    }
+
+    /**
+     * Returns the cell of an event.
+     *
+     * @param i the event number
+     * @return the cell number, {@code y * width + x}
+     */
+    public int cell(final int i) {
+        return this.cells[i];
+    }
+
+    /**
+     * Returns when an event happened.
+     *
+     * @param i the event number
+     * @return the milliseconds since the board was laid out
+     */
+    public long at(final int i) {
+        return this.times[i];
+    }
+
+    /**
+     * Returns the recorded result.
+     *
+     * @return {@link MineEngine#WON}, {@link MineEngine#LOST}, or {@link MineEngine#PLAYING} if the game was
+     * not finished
+     */
+    public int result() {
+        return this.result;
+    }
+
+    /**
+     * Returns the recorded game time, from the event that started the game to the one that ended it.
+     *
+     * @return the time in milliseconds
+     */
+    public long time() {
+        return this.time;
+    }
+
+    /**
+     * Reads the fields of a replay.
+     */
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        Reader(final byte[] data) {
+            this.data = data;
+        }
+
+        int readByte() throws IOException {
+            if (this.position >= this.data.length) {
+                throw new IOException("Replay is cut short");
+            }
+            return this.data[this.position++] & 0xFF;
+        }
+
+        long readLong() throws IOException {
+            long value = 0L;
+            for (int i = 0; i < 8; i++) {
+                value = value << 8 | this.readByte();
+            }
+            return value;
+        }
+
+        long readVarLong() throws IOException {
+            long value = 0L;
+            for (int shift = 0; shift < 64; shift += 7) {
+                final int b = this.readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if (b < 0x80) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint");
+        }
+
+        int readVarInt() throws IOException {
+            final long value = this.readVarLong();
+            if (value < 0 || value > Integer.MAX_VALUE) {
+                throw new IOException("Value out of range: " + value);
+            }
+            return (int) value;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package dev.jcps;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Records the input events of the game being played, in the format read by {@link Replay}.
+ * <p>
+ * Events are encoded as they happen into a buffer kept from game to game, so recording a click only
+ * writes a few bytes and allocates nothing. The header, with the seed the board ended up laid out from,
+ * and the result are added when the game ends.
+ * </p>
+ *
+ * @since 1.1
+ */
+final class ReplayRecorder {
+    /**
+     * The initial size of the event buffer, enough for a long expert game.
+     */
+    private static final int INITIAL_CAPACITY = 4096;
+
+    /**
+     * The encoded events.
+     */
+    private byte[] buffer;
+    /**
+     * The number of bytes used in {@link #buffer}.
+     */
+    private int length;
+    /**
+     * The number of events recorded.
+     */
+    private int events;
+    /**
+     * The cell of the previous event.
+     */
+    private int cell;
+    /**
+     * The {@link System#nanoTime()} the board was laid out.
+     */
+    private long startNanos;
+    /**
+     * The milliseconds from the layout to the previous event.
+     */
+    private long at;
+    /**
+     * The milliseconds from the layout to the event that started the game, or -1 if it has not started.
+     */
+    private long startedAt;
+    /**
+     * The game being recorded.
+     */
+    private Game game;
+    /**
+     * Whether the mines of the game are placed after the first click.
+     */
+    private boolean safeOpening;
+    /**
+     * The replay of the last finished game.
+     */
+    private byte[] last;
+
+    /**
+     * Constructs a recorder.
+     */
+    ReplayRecorder() {
+        this.buffer = new byte[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Starts recording a new board.
+     *
+     * @param game        the board size and mine count
+     * @param safeOpening {@code true} if the mines are placed after the first click, as in safe-opening and
+     *                    no-guess games
+     */
+    void start(final @NotNull Game game, final boolean safeOpening) {
+        this.game = game;
+        this.safeOpening = safeOpening;
+        this.length = 0;
+        this.events = 0;
+        this.cell = 0;
+        this.at = 0L;
+        this.startedAt = -1L;
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Records an input event.
+     *
+     * @param type {@link Replay#PRESS}, {@link Replay#RELEASE}, {@link Replay#CHORD} or {@link Replay#FLAG}
+     * @param cell the cell number of the tile
+     */
+    void record(final int type, final int cell) {
+        if (this.game == null) {
+            return;
+        }
+        final long now = Math.max((System.nanoTime() - this.startNanos) / 1_000_000L, this.at);
+        if (this.length + 20 > this.buffer.length) {
+            this.buffer = Arrays.copyOf(this.buffer, this.buffer.length * 2);
+        }
+        final int delta = cell - this.cell;
+        final long zigzag = Integer.toUnsignedLong(delta << 1 ^ delta >> 31);
+        this.length = putVarLong(this.buffer, this.length, zigzag << 2 | type);
+        this.length = putVarLong(this.buffer, this.length, now - this.at);
+        this.cell = cell;
+        this.at = now;
+        this.events++;
+    }
+
+    /**
+     * Marks the last event as the one that started the game, from which the game time is counted.
+     */
+    void started() {
+        this.startedAt = this.at;
+    }
+
+    /**
+     * Ends the recording of the current game and keeps it as the last replay.
+     *
+     * @param result    {@link MineEngine#WON} or {@link MineEngine#LOST}
+     * @param seed      the seed the board was laid out from, known only once the game started if the mines
+     *                  were placed after the first click
+     * @param algorithm the name of the random number generator algorithm the board was laid out with
+     */
+    void finish(final int result, final long seed, final @NotNull String algorithm) {
+        if (this.game == null) {
+            return;
+        }
+        final byte[] name = algorithm.getBytes(StandardCharsets.US_ASCII);
+        final byte[] replay = new byte[64 + name.length + this.length];
+        replay[0] = 'J';
+        replay[1] = 'M';
+        replay[2] = 'R';
+        replay[3] = Replay.VERSION;
+        int n = putVarLong(replay, 4, this.game.width());
+        n = putVarLong(replay, n, this.game.height());
+        n = putVarLong(replay, n, this.game.mines());
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            replay[n++] = (byte) (seed >>> shift);
+        }
+        replay[n++] = (byte) (this.safeOpening ? Replay.SAFE_OPENING : 0);
+        n = putVarLong(replay, n, name.length);
+        System.arraycopy(name, 0, replay, n, name.length);
+        n = putVarLong(replay, n + name.length, this.events);
+        System.arraycopy(this.buffer, 0, replay, n, this.length);
+        n += this.length;
+        replay[n++] = (byte) result;
+        n = putVarLong(replay, n, this.startedAt < 0 ? 0L : this.at - this.startedAt);
+        this.last = Arrays.copyOf(replay, n);
+        this.game = null;
+    }
+
+    /**
+     * Returns the replay of the last finished game.
+     *
+     * @return the encoded replay, or {@code null} if no game was finished yet
+     */
+    byte[] last() {
+        return this.last;
+    }
+
+    /**
+     * Writes an unsigned varint: seven bits per byte, lowest first, the high bit set on all but the last.
+     *
+     * @return the position after the value
+     */
+    private static int putVarLong(final byte[] out, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out[position++] = (byte) (value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out[position++] = (byte) value;
+        return position;
+    }
+}
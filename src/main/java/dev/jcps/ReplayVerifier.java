@@ -0,0 +1,349 @@
+package dev.jcps;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Plays recorded games again through the engine, as fast as it can, and checks that they end with the
+ * recorded result and time.
+ * <p>
+ * The board is laid out again from the recorded seed, then the events are applied with the rules of
+ * {@link JMine#tilePress(int, int)} and {@link JMine#tileRelease(int, int)}: a press shows its tile, or for
+ * a chord its tile and neighbours, pressed down; a release reveals its tile; a chord reveals the
+ * neighbours of its tile if all its flags are placed and otherwise lifts the pressed tiles; and a flag
+ * cycles the mark of its tile. Pressed tiles count for a chord just as they do in the window, so a chord on
+ * a pressed hidden tile without adjacent mines opens its neighbours. The game time runs from the event that
+ * revealed the first tile to the one that ended the game, and no event may follow that one.
+ * </p>
+ * <p>
+ * Started from the command line with {@code JMine --verify-replays FILE|DIRECTORY... [--threads K]}. The
+ * replays are split evenly over the threads of a fork/join pool, each thread verifying its share with its
+ * own engine, so the threads share no mutable state.
+ * </p>
+ *
+ * @since 1.1
+ */
+public final class ReplayVerifier {
+    /**
+     * The engine the games are played on again.
+     */
+    private final MineEngine engine;
+
+    /**
+     * Constructs a verifier with its own engine. A verifier is used by one thread at a time.
+     */
+    public ReplayVerifier() {
+        this.engine = new MineEngine();
+    }
+
+    /**
+     * The outcome of verifying a replay.
+     *
+     * @param valid  {@code true} if the replay ends with the recorded result and time
+     * @param result the result reached by playing the replay, {@link MineEngine#WON}, {@link MineEngine#LOST}
+     *               or {@link MineEngine#PLAYING} if the events ran out first
+     * @param time   the game time reached, in milliseconds
+     * @param reason why the replay is not valid, or {@code null}
+     */
+    public record Verdict(boolean valid, int result, long time, String reason) {
+    }
+
+    /**
+     * The totals of a batch of replays.
+     *
+     * @param verdicts the verdicts, in the order of the replays
+     * @param nanos    the wall clock time of the run in nanoseconds
+     */
+    public record Batch(List<Verdict> verdicts, long nanos) {
+        /**
+         * Returns the number of valid replays.
+         *
+         * @return the count
+         */
+        public int valid() {
+            int valid = 0;
+            for (final Verdict verdict : this.verdicts) {
+                if (verdict.valid()) {
+                    valid++;
+                }
+            }
+            return valid;
+        }
+
+        /**
+         * Returns the number of replays verified per second.
+         *
+         * @return the throughput
+         */
+        public double replaysPerSecond() {
+            return this.nanos == 0 ? 0.0 : this.verdicts.size() * 1e9 / this.nanos;
+        }
+    }
+
+    /**
+     * Checks if the command line asks for replays to be verified.
+     *
+     * @param args the command line arguments
+     * @return {@code true} if {@code --verify-replays} is present
+     */
+    public static boolean isRequested(final String @NotNull [] args) {
+        for (final String arg : args) {
+            if (arg.equals("--verify-replays")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Verifies the replay files and folders named on the command line and prints the results.
+     *
+     * @param args the command line arguments
+     */
+    public static void main(final String @NotNull [] args) {
+        final List<Path> paths = new ArrayList<>();
+        int threads = Runtime.getRuntime().availableProcessors();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--threads")) {
+                    threads = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("--verify-replays")) {
+                    while (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                        paths.add(Path.of(args[++i]));
+                    }
+                }
+            }
+        } catch (final ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println("Usage: JMine --verify-replays FILE|DIRECTORY... [--threads K]");
+            System.exit(2);
+            return;
+        }
+        if (paths.isEmpty() || threads < 1) {
+            System.err.println("Nothing to verify: name replay files or folders and at least one thread.");
+            System.exit(2);
+            return;
+        }
+        final List<Path> files = new ArrayList<>();
+        final List<byte[]> replays = new ArrayList<>();
+        try {
+            for (final Path path : paths) {
+                if (Files.isDirectory(path)) {
+                    try (Stream<Path> stream = Files.list(path)) {
+                        stream.filter(p -> p.toString().endsWith(".jmr")).sorted().forEach(files::add);
+                    }
+                } else {
+                    files.add(path);
+                }
+            }
+            for (final Path file : files) {
+                replays.add(Files.readAllBytes(file));
+            }
+        } catch (final IOException e) {
+            System.err.println("Cannot read replays: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        final Batch batch = verifyAll(replays, threads);
+        for (int i = 0; i < files.size(); i++) {
+            final Verdict verdict = batch.verdicts().get(i);
+            if (!verdict.valid()) {
+                System.out.printf("%s: %s%n", files.get(i), verdict.reason());
+            }
+        }
+        System.out.printf("%d of %d replays valid on %d threads%n", batch.valid(), files.size(), threads);
+        System.out.printf("replays/second  %.1f (%.3f s)%n", batch.replaysPerSecond(), batch.nanos() / 1e9);
+        if (batch.valid() != files.size()) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Verifies encoded replays in parallel.
+     *
+     * @param replays the replays, as written by {@link ReplayRecorder}
+     * @param threads the number of threads
+     * @return the verdicts, in the order of the replays, and the time taken
+     */
+    public static @NotNull Batch verifyAll(final @NotNull List<byte[]> replays, final int threads) {
+        final int count = replays.size();
+        final Verdict[] verdicts = new Verdict[count];
+        final List<Callable<Void>> tasks = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            final int from = (int) ((long) count * t / threads);
+            final int to = (int) ((long) count * (t + 1) / threads);
+            tasks.add(() -> {
+                final ReplayVerifier verifier = new ReplayVerifier();
+                for (int i = from; i < to; i++) {
+                    verdicts[i] = verifier.verify(replays.get(i));
+                }
+                return null;
+            });
+        }
+        final long started = System.nanoTime();
+        final ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (final Future<Void> future : pool.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Verification interrupted", e);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException("Verification failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        return new Batch(Arrays.asList(verdicts), System.nanoTime() - started);
+    }
+
+    /**
+     * Decodes and verifies a replay on the calling thread. A replay that cannot be read or played, even one
+     * whose board does not fit in memory, gets an invalid verdict rather than an exception, so that one bad
+     * file does not stop a batch.
+     *
+     * @param data the replay, as written by {@link ReplayRecorder}
+     * @return the verdict
+     */
+    public @NotNull Verdict verify(final byte @NotNull [] data) {
+        try {
+            return this.verify(Replay.read(data));
+        } catch (final IOException e) {
+            return new Verdict(false, MineEngine.READY, 0L, e.getMessage());
+        } catch (final RuntimeException | OutOfMemoryError e) {
+            return new Verdict(false, MineEngine.READY, 0L, "Cannot play replay: " + e);
+        }
+    }
+
+    /**
+     * Verifies a replay on the calling thread.
+     *
+     * @param replay the replay
+     * @return the verdict
+     */
+    public @NotNull Verdict verify(final @NotNull Replay replay) {
+        final MineEngine e = this.engine;
+        if (!start(e, replay)) {
+            return new Verdict(false, MineEngine.READY, 0L, "Unplayable game " + replay.game());
+        }
+        long startedAt = 0L;
+        int pressed = -1;
+        for (int i = 0; i < replay.events(); i++) {
+            final int state = e.state();
+            if (state == MineEngine.WON || state == MineEngine.LOST) {
+                return new Verdict(false, state, replay.at(i - 1) - startedAt,
+                        "Event " + i + " follows the end of the game");
+            }
+            pressed = apply(e, replay, i, pressed);
+            if (state == MineEngine.READY && e.state() != MineEngine.READY) {
+                startedAt = replay.at(i);
+            }
+        }
+        final int result = e.state() == MineEngine.READY ? MineEngine.PLAYING : e.state();
+        final long time = replay.events() == 0 || e.state() == MineEngine.READY
+                ? 0L : replay.at(replay.events() - 1) - startedAt;
+        if (result != replay.result()) {
+            return new Verdict(false, result, time, "Result " + name(result) + " instead of " + name(replay.result()));
+        }
+        if (time != replay.time()) {
+            return new Verdict(false, result, time, "Time " + time + " ms instead of " + replay.time() + " ms");
+        }
+        return new Verdict(true, result, time, null);
+    }
+
+    /**
+     * Sets an engine up as the replay was recorded and lays out its board.
+     *
+     * @param engine the engine
+     * @param replay the replay
+     * @return {@code false} if the replay cannot be played
+     */
+    static boolean start(final @NotNull MineEngine engine, final @NotNull Replay replay) {
+        try {
+            if (!engine.randomAlgorithm().equals(replay.algorithm())) {
+                engine.setRandomAlgorithm(replay.algorithm());
+            }
+        } catch (final IllegalArgumentException e) {
+            return false;
+        }
+        engine.setNoGuess(false);
+        engine.setSafeOpening(replay.safeOpening());
+        return engine.newGame(replay.game(), replay.seed());
+    }
+
+    /**
+     * Applies one event of a replay to the game, as the window does when the mouse button is pressed, moved
+     * or released.
+     * <p>
+     * A press shows its tile pressed down, or for a chord its tile and neighbours, and lifts the tiles of the
+     * previous press. A chord or release on another tile than the one pressed means the mouse was moved
+     * with the button held, which lifts the pressed tiles; a held chord also presses the square it was
+     * moved to, as it is not recorded. A chord is then checked against the tiles as they are pressed, and
+     * lifts them only if it cannot reveal the neighbours.
+     * </p>
+     *
+     * @param engine  the engine
+     * @param replay  the replay
+     * @param i       the event number
+     * @param pressed the cell left pressed down by the previous events, or -1
+     * @return the cell left pressed down by this event, or -1
+     */
+    static int apply(final @NotNull MineEngine engine, final @NotNull Replay replay, final int i, final int pressed) {
+        final int type = replay.type(i);
+        final int width = replay.game().width();
+        final int cell = replay.cell(i);
+        final int x = cell % width;
+        final int y = cell / width;
+        if (type == Replay.FLAG) {
+            engine.cycleMark(x, y);
+            return pressed;
+        }
+        final boolean chord = replay.isChord(i);
+        if (pressed >= 0 && (type == Replay.PRESS || pressed != cell)) {
+            if (chord) {
+                engine.squareUp(pressed % width, pressed / width);
+            } else {
+                engine.retouch(pressed % width, pressed / width);
+            }
+        }
+        if (type == Replay.PRESS || type == Replay.CHORD && pressed != cell) {
+            if (chord) {
+                engine.squareDown(x, y);
+            } else {
+                engine.touch(x, y);
+            }
+        }
+        if (type == Replay.PRESS) {
+            return cell;
+        }
+        if (type == Replay.RELEASE) {
+            engine.reveal(x, y);
+        } else if (engine.canChord(x, y)) {
+            engine.squareReveal(x, y);
+        } else {
+            engine.squareUp(x, y);
+        }
+        return -1;
+    }
+
+    private static String name(final int state) {
+        switch (state) {
+            case MineEngine.WON:
+                return "won";
+            case MineEngine.LOST:
+                return "lost";
+            default:
+                return "unfinished";
+        }
+    }
+}
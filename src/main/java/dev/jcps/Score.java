@@ -7,8 +7,8 @@ package dev.jcps;
  * </p>
  *
  * @param name The name of the player who achieved the score.
- * @param time The time taken to achieve the score.
+ * @param time The time taken to achieve the score, in milliseconds.
  * @since 1.0
  */
-record Score(String name, int time) {
+record Score(String name, long time) {
 }
@@ -0,0 +1,631 @@
+package dev.jcps;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32;
+
+/**
+ * A durable store of finished games, kept per board size and mine count, so custom boards have their own
+ * tables too.
+ * <p>
+ * Every game is appended to a binary log, {@value #LOG_FILE}, as a length-prefixed record ending in a
+ * CRC-32 checksum. The best {@value #TOP} times of each board and the {@link PlayerStats} of each player
+ * on each board are also kept in memory as running aggregates, and a snapshot of them is saved in
+ * {@value #INDEX_FILE} together with the log length it covers. Opening the store reads the snapshot and
+ * only the records appended after it, never the whole history, so its cost does not grow with the number
+ * of games played. A record cut short by a crash is detected by its checksum and dropped. Times are kept
+ * in milliseconds.
+ * </p>
+ * <p>
+ * Adding a game updates the in-memory tables at once and leaves the file work to a background thread.
+ * That thread writes whatever has queued up, forces it to disk once per batch and then saves a new
+ * snapshot, so a burst of scores costs one sync.
+ * </p>
+ *
+ * @since 1.1
+ */
+final class ScoreStore {
+    /**
+     * The number of times kept per board.
+     */
+    static final int TOP = 10;
+    /**
+     * Name of the score log inside the store directory.
+     */
+    static final String LOG_FILE = "scores.log";
+    /**
+     * Name of the index snapshot inside the store directory.
+     */
+    static final String INDEX_FILE = "scores.idx";
+
+    /**
+     * Magic number opening the log, {@code JMSL}.
+     */
+    private static final int LOG_MAGIC = 0x4A4D534C;
+    /**
+     * Magic number opening the index, {@code JMSI}.
+     */
+    private static final int INDEX_MAGIC = 0x4A4D5349;
+    /**
+     * The log format version.
+     */
+    private static final int LOG_VERSION = 1;
+    /**
+     * The index format version.
+     */
+    private static final int INDEX_VERSION = 1;
+    /**
+     * Length of the log header: the magic number and the version.
+     */
+    private static final int HEADER = 8;
+    /**
+     * Record type of a finished game.
+     */
+    private static final byte GAME = 1;
+    /**
+     * Largest record accepted when reading, to stop at garbage quickly.
+     */
+    private static final int MAX_RECORD = 1 << 16;
+
+    private static final Logger logger = LoggerFactory.getLogger(ScoreStore.class);
+
+    /**
+     * The best times as seen by the game, including scores still waiting to be written.
+     */
+    private final Index live;
+    /**
+     * The best times as written to the log, only used by the writer thread.
+     */
+    private final Index durable;
+    /**
+     * The store directory, or {@code null} for a store kept in memory only.
+     */
+    private final Path directory;
+    /**
+     * The score log, or {@code null} for a store kept in memory only.
+     */
+    private final FileChannel log;
+    /**
+     * Encoded records waiting for the writer thread.
+     */
+    private final BlockingQueue<byte[]> pending;
+    /**
+     * The thread appending records, or {@code null} for a store kept in memory only.
+     */
+    private final Thread writer;
+    /**
+     * The number of records queued so far. Guarded by {@link #pending}.
+     */
+    private long queued;
+    /**
+     * The number of queued records the writer thread is done with. Guarded by {@link #pending}.
+     */
+    private long saved;
+
+    private ScoreStore(final Index live, final Index durable, final Path directory, final FileChannel log) {
+        this.live = live;
+        this.durable = durable;
+        this.directory = directory;
+        this.log = log;
+        this.pending = new LinkedBlockingQueue<>();
+        if (log == null) {
+            this.writer = null;
+        } else {
+            this.writer = new Thread(this::write, "JMine score writer");
+            this.writer.setDaemon(true);
+            this.writer.start();
+        }
+    }
+
+    /**
+     * Creates a store that forgets its scores on exit.
+     *
+     * @return the store
+     */
+    static @NotNull ScoreStore inMemory() {
+        return new ScoreStore(new Index(), null, null, null);
+    }
+
+    /**
+     * Opens the store in a directory, creating the directory and its files if needed.
+     *
+     * @param directory the store directory
+     * @return the store
+     * @throws IOException if the files cannot be created or read
+     */
+    static @NotNull ScoreStore open(final @NotNull Path directory) throws IOException {
+        Files.createDirectories(directory);
+        final FileChannel log = FileChannel.open(directory.resolve(LOG_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (log.size() < HEADER) {
+                log.truncate(0);
+                log.write(ByteBuffer.allocate(HEADER).putInt(LOG_MAGIC).putInt(LOG_VERSION).flip(), 0);
+                log.force(true);
+            } else {
+                final ByteBuffer header = ByteBuffer.allocate(HEADER);
+                log.read(header, 0);
+                if (header.getInt(0) != LOG_MAGIC || header.getInt(4) != LOG_VERSION) {
+                    throw new IOException("Not a JMine score log: " + directory.resolve(LOG_FILE));
+                }
+            }
+            Index index = readIndex(directory.resolve(INDEX_FILE), log.size());
+            if (index == null) {
+                index = new Index();
+                index.offset = HEADER;
+            }
+            final long end = replay(log, index);
+            if (end < log.size()) {
+                logger.warn("Dropping {} bytes of an incomplete score record", log.size() - end);
+                log.truncate(end);
+            }
+            log.position(end);
+            logger.debug("Opened score store {} at {} bytes", directory, end);
+            final ScoreStore store = new ScoreStore(index.copy(), index, directory, log);
+            Runtime.getRuntime().addShutdownHook(new Thread(store::close, "JMine score store shutdown"));
+            return store;
+        } catch (final IOException | RuntimeException e) {
+            log.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Adds a finished game. The tables and statistics are updated at once; the record is written in the
+     * background.
+     *
+     * @param game   the board size and mine count
+     * @param player the name of the player
+     * @param won    {@code true} if the game was won
+     * @param time   the time played in milliseconds
+     * @param bbbv   the 3BV of the board, or 0 if unknown
+     */
+    void record(final @NotNull Game game, final @NotNull String player, final boolean won, final long time,
+                final int bbbv) {
+        final Result result = new Result(game.width(), game.height(), game.mines(), player, won, time, bbbv,
+                System.currentTimeMillis());
+        synchronized (this.live) {
+            this.live.add(result);
+        }
+        if (this.log != null) {
+            final byte[] record = encode(result);
+            synchronized (this.pending) {
+                this.queued++;
+                this.pending.add(record);
+            }
+        }
+    }
+
+    /**
+     * Returns the best time of a board.
+     *
+     * @param game the board size and mine count
+     * @return the best score, or {@code null} if the board has none yet
+     */
+    @Nullable Score best(final @NotNull Game game) {
+        final List<Score> top = this.top(game, 1);
+        return top.isEmpty() ? null : top.get(0);
+    }
+
+    /**
+     * Returns the best times of a board, fastest first; of equal times the earliest comes first.
+     *
+     * @param game the board size and mine count
+     * @param n    the largest number of scores wanted, at most {@value #TOP} are kept
+     * @return the scores
+     */
+    @NotNull List<Score> top(final @NotNull Game game, final int n) {
+        synchronized (this.live) {
+            final Entry[] entries = this.live.tables.get(key(game));
+            final List<Score> scores = new ArrayList<>(Math.min(n, TOP));
+            for (int i = 0; entries != null && i < entries.length && entries[i] != null && i < n; i++) {
+                scores.add(entries[i].score);
+            }
+            return scores;
+        }
+    }
+
+    /**
+     * Returns the statistics of a player on a board.
+     *
+     * @param game   the board size and mine count
+     * @param player the name of the player
+     * @return a copy of the statistics, or {@code null} if the player has no games on the board
+     */
+    @Nullable PlayerStats stats(final @NotNull Game game, final @NotNull String player) {
+        synchronized (this.live) {
+            final Map<String, PlayerStats> players = this.live.players.get(key(game));
+            final PlayerStats stats = players == null ? null : players.get(player);
+            return stats == null ? null : stats.copy();
+        }
+    }
+
+    /**
+     * Ranks the players of a board, keeping only the best few in a bounded heap.
+     *
+     * @param game  the board size and mine count
+     * @param k     the number of players wanted
+     * @param order the ranking, best first
+     * @return the names of at most {@code k} players, best first
+     */
+    @NotNull List<String> leaders(final @NotNull Game game, final int k,
+                                  final @NotNull Comparator<PlayerStats> order) {
+        final Comparator<Map.Entry<String, PlayerStats>> byStats = Map.Entry.comparingByValue(order);
+        final PriorityQueue<Map.Entry<String, PlayerStats>> heap = new PriorityQueue<>(k + 1, byStats.reversed());
+        synchronized (this.live) {
+            final Map<String, PlayerStats> players = this.live.players.get(key(game));
+            if (players != null && k > 0) {
+                for (final Map.Entry<String, PlayerStats> player : players.entrySet()) {
+                    heap.add(player);
+                    if (heap.size() > k) {
+                        heap.poll();
+                    }
+                }
+            }
+            final String[] names = new String[heap.size()];
+            for (int i = names.length - 1; i >= 0; i--) {
+                names[i] = heap.poll().getKey();
+            }
+            return List.of(names);
+        }
+    }
+
+    /**
+     * Waits until every game added so far is on disk.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void flush() throws InterruptedException {
+        synchronized (this.pending) {
+            final long target = this.queued;
+            while (this.saved < target) {
+                this.pending.wait();
+            }
+        }
+    }
+
+    /**
+     * Writer thread: appends each batch of queued records, syncs and saves a snapshot.
+     */
+    private void write() {
+        final List<byte[]> batch = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(this.pending.take());
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            this.pending.drainTo(batch);
+            try {
+                this.append(batch);
+            } catch (final IOException e) {
+                logger.error("Could not save {} games", batch.size(), e);
+            } finally {
+                synchronized (this.pending) {
+                    this.saved += batch.size();
+                    this.pending.notifyAll();
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    private void append(final List<byte[]> batch) throws IOException {
+        for (final byte[] record : batch) {
+            final ByteBuffer buffer = ByteBuffer.wrap(record);
+            while (buffer.hasRemaining()) {
+                this.log.write(buffer);
+            }
+            this.durable.add(decode(new DataInputStream(new ByteArrayInputStream(record, 4, record.length - 8))));
+        }
+        this.log.force(false);
+        this.durable.offset = this.log.position();
+        this.writeIndex();
+    }
+
+    /**
+     * Saves the durable tables, replacing the previous snapshot in one step.
+     */
+    private void writeIndex() throws IOException {
+        final Path target = this.directory.resolve(INDEX_FILE);
+        final Path temp = this.directory.resolve(INDEX_FILE + ".tmp");
+        try (OutputStream file = Files.newOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            out.writeInt(INDEX_MAGIC);
+            out.writeInt(INDEX_VERSION);
+            out.writeLong(this.durable.offset);
+            out.writeInt(this.durable.tables.size());
+            for (final Map.Entry<Key, Entry[]> table : this.durable.tables.entrySet()) {
+                final Key key = table.getKey();
+                out.writeInt(key.width);
+                out.writeInt(key.height);
+                out.writeInt(key.mines);
+                int count = 0;
+                while (count < TOP && table.getValue()[count] != null) {
+                    count++;
+                }
+                out.writeInt(count);
+                for (int i = 0; i < count; i++) {
+                    final Entry entry = table.getValue()[i];
+                    out.writeLong(entry.score.time());
+                    out.writeLong(entry.when);
+                    out.writeUTF(entry.score.name());
+                }
+            }
+            out.writeInt(this.durable.players.size());
+            for (final Map.Entry<Key, Map<String, PlayerStats>> board : this.durable.players.entrySet()) {
+                final Key key = board.getKey();
+                out.writeInt(key.width);
+                out.writeInt(key.height);
+                out.writeInt(key.mines);
+                out.writeInt(board.getValue().size());
+                for (final Map.Entry<String, PlayerStats> player : board.getValue().entrySet()) {
+                    out.writeUTF(player.getKey());
+                    player.getValue().write(out);
+                }
+            }
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Reads a snapshot.
+     *
+     * @param path    the index file
+     * @param logSize the current length of the log
+     * @return the tables, or {@code null} if the snapshot is missing, damaged or ahead of the log
+     */
+    private static @Nullable Index readIndex(final Path path, final long logSize) {
+        try (InputStream file = Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file))) {
+            if (in.readInt() != INDEX_MAGIC || in.readInt() != INDEX_VERSION) {
+                logger.warn("Ignoring unknown score index {}", path);
+                return null;
+            }
+            final Index index = new Index();
+            index.offset = in.readLong();
+            if (index.offset < HEADER || index.offset > logSize) {
+                logger.warn("Score index {} does not match the log, rebuilding it", path);
+                return null;
+            }
+            final int keys = in.readInt();
+            for (int k = 0; k < keys; k++) {
+                final int width = in.readInt();
+                final int height = in.readInt();
+                final int mines = in.readInt();
+                final int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    final long time = in.readLong();
+                    final long when = in.readLong();
+                    index.add(new Entry(width, height, mines, new Score(in.readUTF(), time), when));
+                }
+            }
+            final int boards = in.readInt();
+            for (int k = 0; k < boards; k++) {
+                final Key key = new Key(in.readInt(), in.readInt(), in.readInt());
+                final int count = in.readInt();
+                final Map<String, PlayerStats> players = new HashMap<>();
+                for (int i = 0; i < count; i++) {
+                    players.put(in.readUTF(), PlayerStats.read(in));
+                }
+                index.players.put(key, players);
+            }
+            return index;
+        } catch (final NoSuchFileException e) {
+            return null;
+        } catch (final IOException e) {
+            logger.warn("Could not read score index {}, rebuilding it", path, e);
+            return null;
+        }
+    }
+
+    /**
+     * Adds the games recorded after the offset of the tables to them.
+     *
+     * @param log   the score log
+     * @param index the tables
+     * @return the end of the last complete record
+     */
+    private static long replay(final FileChannel log, final Index index) throws IOException {
+        long offset = index.offset;
+        final long size = log.size();
+        final ByteBuffer length = ByteBuffer.allocate(4);
+        final CRC32 crc = new CRC32();
+        while (offset + 4 <= size) {
+            length.clear();
+            log.read(length, offset);
+            final int n = length.getInt(0);
+            if (n <= 0 || n > MAX_RECORD || offset + 8 + n > size) {
+                break;
+            }
+            final ByteBuffer record = ByteBuffer.allocate(n + 4);
+            while (record.hasRemaining() && log.read(record, offset + 4 + record.position()) > 0) {
+                // keep reading
+            }
+            crc.reset();
+            crc.update(record.array(), 0, n);
+            if ((int) crc.getValue() != record.getInt(n)) {
+                break;
+            }
+            final Result result = decode(new DataInputStream(new ByteArrayInputStream(record.array(), 0, n)));
+            if (result != null) {
+                index.add(result);
+            }
+            offset += 8 + n;
+        }
+        index.offset = offset;
+        return offset;
+    }
+
+    /**
+     * Encodes a record: its length, the type and fields, and their checksum.
+     */
+    private static byte[] encode(final Result result) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(0);
+            out.writeByte(GAME);
+            out.writeInt(result.width);
+            out.writeInt(result.height);
+            out.writeInt(result.mines);
+            out.writeLong(result.time);
+            out.writeLong(result.when);
+            out.writeUTF(result.player);
+            out.writeBoolean(result.won);
+            out.writeInt(result.bbbv);
+            out.writeInt(0);
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        }
+        final byte[] record = bytes.toByteArray();
+        final int n = record.length - 8;
+        final CRC32 crc = new CRC32();
+        crc.update(record, 4, n);
+        ByteBuffer.wrap(record).putInt(0, n).putInt(record.length - 4, (int) crc.getValue());
+        return record;
+    }
+
+    /**
+     * Decodes the type and fields of a record.
+     *
+     * @return the game, or {@code null} for a record type this version does not know
+     */
+    private static @Nullable Result decode(final DataInputStream in) throws IOException {
+        final byte type = in.readByte();
+        if (type != GAME) {
+            return null;
+        }
+        final int width = in.readInt();
+        final int height = in.readInt();
+        final int mines = in.readInt();
+        final long time = in.readLong();
+        final long when = in.readLong();
+        final String player = in.readUTF();
+        return new Result(width, height, mines, player, in.readBoolean(), time, in.readInt(), when);
+    }
+
+    /**
+     * Stops the writer thread after it has written every queued game, and closes the log.
+     */
+    void close() {
+        if (this.log == null) {
+            return;
+        }
+        try {
+            this.flush();
+            this.writer.interrupt();
+            this.writer.join();
+            this.log.close();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final IOException e) {
+            logger.warn("Could not close the score log", e);
+        }
+    }
+
+    private static Key key(final Game game) {
+        return new Key(game.width(), game.height(), game.mines());
+    }
+
+    /**
+     * A board size and mine count.
+     */
+    private record Key(int width, int height, int mines) {
+    }
+
+    /**
+     * A finished game as recorded in the log.
+     */
+    private record Result(int width, int height, int mines, String player, boolean won, long time, int bbbv,
+                          long when) {
+    }
+
+    /**
+     * A score with its board and the time it was recorded.
+     */
+    private record Entry(int width, int height, int mines, Score score, long when) {
+    }
+
+    /**
+     * The best times and the player statistics of every board, and the log length they cover.
+     */
+    private static final class Index {
+        final Map<Key, Entry[]> tables = new HashMap<>();
+        final Map<Key, Map<String, PlayerStats>> players = new HashMap<>();
+        long offset;
+
+        void add(final Result result) {
+            final Key key = new Key(result.width, result.height, result.mines);
+            this.players.computeIfAbsent(key, k -> new HashMap<>())
+                    .computeIfAbsent(result.player, p -> new PlayerStats())
+                    .record(result.won, result.time, result.bbbv);
+            if (result.won) {
+                this.add(new Entry(result.width, result.height, result.mines, new Score(result.player, result.time),
+                        result.when));
+            }
+        }
+
+        void add(final Entry entry) {
+            final Entry[] table = this.tables.computeIfAbsent(new Key(entry.width, entry.height, entry.mines),
+                    k -> new Entry[TOP]);
+            int i = TOP;
+            while (i > 0 && (table[i - 1] == null || isBetter(entry, table[i - 1]))) {
+                i--;
+            }
+            if (i == TOP) {
+                return;
+            }
+            System.arraycopy(table, i, table, i + 1, TOP - i - 1);
+            table[i] = entry;
+        }
+
+        private static boolean isBetter(final Entry a, final Entry b) {
+            return a.score.time() < b.score.time() || a.score.time() == b.score.time() && a.when < b.when;
+        }
+
+        Index copy() {
+            final Index copy = new Index();
+            copy.offset = this.offset;
+            this.tables.forEach((key, table) -> copy.tables.put(key, table.clone()));
+            this.players.forEach((key, players) -> {
+                final Map<String, PlayerStats> copies = new HashMap<>();
+                players.forEach((player, stats) -> copies.put(player, stats.copy()));
+                copy.players.put(key, copies);
+            });
+            return copy;
+        }
+    }
+}
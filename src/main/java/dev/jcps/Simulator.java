@@ -0,0 +1,248 @@
+package dev.jcps;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Plays large numbers of games headlessly with the {@link Solver} and {@link MineProbability}, and
+ * reports the win rate.
+ * <p>
+ * Started from the command line with
+ * {@code JMine --simulate N [--difficulty beginner|intermediate|expert|WIDTHxHEIGHTxMINES] [--threads K]
+ * [--seed S] [--safe-opening] [--no-guess]}. Each game opens in the middle of the board, relying on the first click
+ * being safe, then reveals every tile the solver proves safe and, when stuck, the tile least likely to be a
+ * mine.
+ * </p>
+ * <p>
+ * The games are split evenly over the threads of a fork/join pool. Every thread has its own engine,
+ * solver and {@link SplittableRandom} stream split from one root, and returns its own tally, so the
+ * threads share no mutable state. With a fixed seed and thread count a run is reproducible.
+ * </p>
+ *
+ * @since 1.1
+ */
+public final class Simulator {
+    private Simulator() {
+    }
+
+    /**
+     * The totals of a simulation run.
+     *
+     * @param games   the number of games played
+     * @param won     the number of games won
+     * @param guesses the number of moves that revealed a tile not proven safe, first clicks excluded
+     * @param nanos   the wall clock time of the run in nanoseconds
+     */
+    public record Result(int games, int won, long guesses, long nanos) {
+        /**
+         * Returns the fraction of games won.
+         *
+         * @return the win rate, from 0 to 1
+         */
+        public double winRate() {
+            return this.games == 0 ? 0.0 : (double) this.won / this.games;
+        }
+
+        /**
+         * Returns the average number of guesses per game.
+         *
+         * @return the guesses per game
+         */
+        public double guessesPerGame() {
+            return this.games == 0 ? 0.0 : (double) this.guesses / this.games;
+        }
+
+        /**
+         * Returns the number of games played per second.
+         *
+         * @return the throughput
+         */
+        public double gamesPerSecond() {
+            return this.nanos == 0 ? 0.0 : this.games * 1e9 / this.nanos;
+        }
+    }
+
+    /**
+     * Checks if the command line asks for a simulation.
+     *
+     * @param args the command line arguments
+     * @return {@code true} if {@code --simulate} is present
+     */
+    public static boolean isRequested(final String @NotNull [] args) {
+        for (final String arg : args) {
+            if (arg.equals("--simulate")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Runs a simulation as described by the command line and prints the results.
+     *
+     * @param args the command line arguments
+     */
+    public static void main(final String @NotNull [] args) {
+        int games = 1000;
+        Game game = JMine.EXPERT;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = new SplittableRandom().nextLong();
+        boolean safeOpening = false;
+        boolean noGuess = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--simulate":
+                        games = Integer.parseInt(args[++i]);
+                        break;
+                    case "--difficulty":
+                        game = parseGame(args[++i]);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(args[++i]);
+                        break;
+                    case "--seed":
+                        seed = Long.decode(args[++i]);
+                        break;
+                    case "--safe-opening":
+                        safeOpening = true;
+                        break;
+                    case "--no-guess":
+                        noGuess = true;
+                        break;
+                    default:
+                        // options of the game itself
+                }
+            }
+        } catch (final ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println("Usage: JMine --simulate N [--difficulty beginner|intermediate|expert|WxHxM]"
+                    + " [--threads K] [--seed S] [--safe-opening] [--no-guess]");
+            System.exit(2);
+            return;
+        }
+        if (games < 0 || threads < 1 || game.mines() >= game.width() * game.height()) {
+            System.err.println("Nothing to simulate: check the number of games, threads and mines.");
+            System.exit(2);
+            return;
+        }
+        final Result result = run(game, games, threads, seed, safeOpening, noGuess);
+        System.out.printf("%d games of %dx%d with %d mines on %d threads (seed %d)%n", result.games(),
+                game.width(), game.height(), game.mines(), threads, seed);
+        System.out.printf("win rate        %.2f%% (%d won)%n", 100 * result.winRate(), result.won());
+        System.out.printf("guesses/game    %.3f%n", result.guessesPerGame());
+        System.out.printf("games/second    %.1f (%.2f s)%n", result.gamesPerSecond(), result.nanos() / 1e9);
+    }
+
+    /**
+     * Parses a difficulty name or a custom board written as {@code WIDTHxHEIGHTxMINES}.
+     *
+     * @param name the difficulty
+     * @return the game
+     * @throws IllegalArgumentException if the name is not understood
+     */
+    static Game parseGame(final @NotNull String name) {
+        switch (name.toLowerCase()) {
+            case "beginner":
+                return JMine.BEGINNER;
+            case "intermediate":
+                return JMine.INTERMEDIATE;
+            case "expert":
+                return JMine.EXPERT;
+            default:
+                final String[] parts = name.split("x");
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException("Unknown difficulty: " + name);
+                }
+                return new Game(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+        }
+    }
+
+    /**
+     * Plays games in parallel.
+     *
+     * @param game        the board size and mine count
+     * @param games       the number of games to play
+     * @param threads     the number of threads
+     * @param seed        the root seed; each thread gets its own stream split from it
+     * @param safeOpening whether the first click always opens an area without mines
+     * @param noGuess     whether only boards that can be won without guessing are dealt
+     * @return the totals
+     */
+    public static @NotNull Result run(final @NotNull Game game, final int games, final int threads, final long seed,
+                                      final boolean safeOpening, final boolean noGuess) {
+        final SplittableRandom root = new SplittableRandom(seed);
+        final List<Callable<Result>> tasks = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            final int share = games / threads + (t < games % threads ? 1 : 0);
+            final SplittableRandom random = root.split();
+            tasks.add(() -> play(game, share, random, safeOpening, noGuess));
+        }
+        final long started = System.nanoTime();
+        final ForkJoinPool pool = new ForkJoinPool(threads);
+        int won = 0;
+        long guesses = 0;
+        try {
+            for (final Future<Result> future : pool.invokeAll(tasks)) {
+                final Result part = future.get();
+                won += part.won();
+                guesses += part.guesses();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrupted", e);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException("Simulation failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        return new Result(games, won, guesses, System.nanoTime() - started);
+    }
+
+    /**
+     * Plays games on the calling thread.
+     *
+     * @param game        the board size and mine count
+     * @param games       the number of games to play
+     * @param random      the source of board seeds and sampling decisions, owned by this thread
+     * @param safeOpening whether the first click always opens an area without mines
+     * @param noGuess     whether only boards that can be won without guessing are dealt
+     * @return the totals, without timing
+     */
+    static @NotNull Result play(final @NotNull Game game, final int games, final @NotNull SplittableRandom random,
+                                final boolean safeOpening, final boolean noGuess) {
+        final MineEngine engine = new MineEngine(random.split());
+        engine.setSafeOpening(safeOpening);
+        engine.setNoGuess(noGuess);
+        final Solver solver = new Solver(engine);
+        final MineProbability probability = new MineProbability(solver, random.split());
+        final int width = game.width();
+        int won = 0;
+        long guesses = 0;
+        for (int g = 0; g < games; g++) {
+            engine.newGame(game);
+            engine.reveal(width / 2, game.height() / 2);
+            while (engine.state() == MineEngine.PLAYING) {
+                solver.play();
+                if (engine.state() != MineEngine.PLAYING) {
+                    break;
+                }
+                final int cell = probability.bestGuess();
+                if (probability.probability(cell) > 0.0) {
+                    guesses++;
+                }
+                engine.reveal(cell % width, cell / width);
+            }
+            if (engine.state() == MineEngine.WON) {
+                won++;
+            }
+        }
+        return new Result(games, won, guesses, 0L);
+    }
+}
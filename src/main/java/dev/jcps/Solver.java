@@ -0,0 +1,591 @@
+package dev.jcps;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * A deterministic Minesweeper solver that finds the tiles which are certainly safe and certainly mines.
+ * <p>
+ * The solver only looks at what a player can see: the revealed numbers and the total number of mines.
+ * Flags are not trusted, since a player may have placed them wrongly. Three kinds of reasoning are
+ * applied, each of them exact:
+ * </p>
+ * <ul>
+ *     <li>single-point: a number whose remaining mines are zero, or equal to its unknown neighbours,
+ *     decides all of them;</li>
+ *     <li>pairwise: two numbers at most two tiles apart share some unknown neighbours, and if one of them
+ *     needs as many more mines than the other as it has tiles of its own, those tiles are mines and the
+ *     other number's own tiles are safe. This covers the subset rule;</li>
+ *     <li>global: disjoint numbers account for an exact number of mines, and when that leaves no mines,
+ *     or only mines, for the other unknown tiles, those tiles are decided.</li>
+ * </ul>
+ * <p>
+ * The solver is incremental. Each call to {@link #solve()} compares the revealed tiles with those seen
+ * by the previous call and only reconsiders the numbers next to tiles that changed, so it keeps up with
+ * live play on large boards. A new game is detected and starts the solver over.
+ * </p>
+ * <p>
+ * Tiles are identified by their cell number, {@code y * width + x}.
+ * </p>
+ *
+ * @since 1.1
+ */
+public class Solver {
+    /**
+     * Knowledge of a tile that has not been decided.
+     */
+    private static final byte UNKNOWN = 0;
+    /**
+     * Knowledge of a tile that is revealed or proven safe.
+     */
+    private static final byte SAFE = 1;
+    /**
+     * Knowledge of a tile that is proven to be a mine.
+     */
+    private static final byte MINE = 2;
+    /**
+     * Temporary knowledge of an unknown tile covered by a number picked in the global pass.
+     */
+    private static final byte PACKED = 3;
+
+    /**
+     * Distance from the centre to the edge of the window used for neighbour masks. A number two tiles
+     * away has neighbours up to three tiles from the centre.
+     */
+    private static final int RADIUS = 3;
+    /**
+     * Side of the square window, centred on a number, holding the neighbours of every number up to two
+     * tiles away. Neighbour sets are bit masks over this window, which fit in a {@code long}.
+     */
+    private static final int WINDOW = 2 * RADIUS + 1;
+
+    private final MineEngine engine;
+
+    /**
+     * The engine generation the solver state belongs to.
+     */
+    private int generation = -1;
+
+    private MineBoard board;
+    private int width;
+    private int height;
+
+    /**
+     * What is known about each tile: {@link #UNKNOWN}, {@link #SAFE} or {@link #MINE}.
+     */
+    private byte[] known;
+
+    /**
+     * The revealed bitplane as seen by the last call to {@link #solve()}.
+     */
+    private long[] seen;
+
+    /**
+     * The number of tiles still {@link #UNKNOWN}.
+     */
+    private int unknown;
+
+    /**
+     * The number of tiles proven to be mines.
+     */
+    private int knownMines;
+
+    /**
+     * Numbers to reconsider, and the bitset of cells in that queue.
+     */
+    private final IntList queue = new IntList();
+    private long[] queued;
+
+    /**
+     * Numbers that had unknown neighbours when last considered, and the bitset of cells in that list.
+     */
+    private final IntList frontier = new IntList();
+    private long[] inFrontier;
+
+    /**
+     * Proven safe tiles and proven mines, in the order they were found. Safe tiles are dropped once they
+     * have been revealed.
+     */
+    private final IntList safe = new IntList();
+    private final IntList mines = new IntList();
+
+    /**
+     * Set when something was learned since the last global pass.
+     */
+    private boolean changed;
+
+    /**
+     * Remaining mines of the number last passed to {@link #unknownMask(int, int, int, int)}.
+     */
+    private int need;
+
+    /**
+     * Cells covered by the disjoint numbers of the global pass, cleared afterwards.
+     */
+    private final IntList packed = new IntList();
+
+    /**
+     * Frontier numbers of the global pass, sorted by the mines they still need.
+     */
+    private long[] order = new long[16];
+
+    /**
+     * Constructs a solver for the game played on an engine.
+     *
+     * @param engine the engine to follow
+     */
+    public Solver(final @NotNull MineEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Brings the solver up to date with the board and deduces everything it can.
+     *
+     * @return {@code true} if at least one unrevealed tile is known to be safe
+     */
+    public boolean solve() {
+        if (this.engine.board() == null || this.engine.state() > MineEngine.PLAYING) {
+            return false;
+        }
+        if (this.generation != this.engine.generation() || this.board != this.engine.board()) {
+            this.reset();
+        }
+        this.scanRevealed();
+        do {
+            while (!this.queue.isEmpty()) {
+                final int cell = this.queue.pop();
+                this.queued[cell >>> 6] &= ~(1L << cell);
+                this.consider(cell);
+            }
+        } while (this.changed && this.globalPass());
+        this.pruneSafe();
+        return !this.safe.isEmpty();
+    }
+
+    /**
+     * Starts over for the engine's current game.
+     */
+    private void reset() {
+        this.generation = this.engine.generation();
+        this.board = this.engine.board();
+        this.width = this.board.width;
+        this.height = this.board.height;
+        final int size = this.board.size();
+        this.known = new byte[size];
+        this.seen = new long[this.board.revealed.length];
+        this.queued = new long[this.seen.length];
+        this.inFrontier = new long[this.seen.length];
+        this.unknown = size;
+        this.knownMines = 0;
+        this.queue.clear();
+        this.frontier.clear();
+        this.safe.clear();
+        this.mines.clear();
+        this.changed = false;
+    }
+
+    /**
+     * Finds the tiles revealed since the last call and queues the numbers around them.
+     */
+    private void scanRevealed() {
+        final long[] revealed = this.board.revealed;
+        for (int word = 0; word < revealed.length; word++) {
+            long fresh = revealed[word] & ~this.seen[word];
+            if (fresh == 0) {
+                continue;
+            }
+            this.seen[word] |= fresh;
+            while (fresh != 0) {
+                final int cell = (word << 6) + Long.numberOfTrailingZeros(fresh);
+                fresh &= fresh - 1;
+                if (this.known[cell] == UNKNOWN) {
+                    this.known[cell] = SAFE;
+                    this.unknown--;
+                }
+                this.enqueue(cell);
+                this.enqueueAround(cell);
+                this.changed = true;
+            }
+        }
+    }
+
+    /**
+     * Applies the single-point and pairwise rules to a number.
+     *
+     * @param cell the cell of a revealed tile
+     */
+    private void consider(final int cell) {
+        final int ax = cell % this.width;
+        final int ay = cell / this.width;
+        final long mask = this.unknownMask(ax, ay, ax, ay);
+        if (mask == 0L) {
+            return;
+        }
+        final int needA = this.need;
+        final int size = Long.bitCount(mask);
+        if (needA == 0) {
+            this.decide(mask, ax, ay, SAFE);
+            return;
+        }
+        if (needA == size) {
+            this.decide(mask, ax, ay, MINE);
+            return;
+        }
+        if ((this.inFrontier[cell >>> 6] & (1L << cell)) == 0) {
+            this.inFrontier[cell >>> 6] |= 1L << cell;
+            this.frontier.add(cell);
+        }
+        for (int by = Math.max(ay - 2, 0); by <= Math.min(ay + 2, this.height - 1); by++) {
+            for (int bx = Math.max(ax - 2, 0); bx <= Math.min(ax + 2, this.width - 1); bx++) {
+                final int other = this.board.cell(bx, by);
+                if (other == cell || !this.isNumber(other)) {
+                    continue;
+                }
+                final long maskB = this.unknownMask(bx, by, ax, ay);
+                if ((mask & maskB) == 0L) {
+                    continue;
+                }
+                final long onlyA = mask & ~maskB;
+                final long onlyB = maskB & ~mask;
+                if (needA - this.need == Long.bitCount(onlyA)) {
+                    this.decide(onlyA, ax, ay, MINE);
+                    this.decide(onlyB, ax, ay, SAFE);
+                } else if (this.need - needA == Long.bitCount(onlyB)) {
+                    this.decide(onlyB, ax, ay, MINE);
+                    this.decide(onlyA, ax, ay, SAFE);
+                } else {
+                    continue;
+                }
+                if (onlyA != 0L || onlyB != 0L) {
+                    this.enqueue(cell);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the unknown neighbours of a number as a mask over the window centred on another tile, and
+     * leaves the number of mines still to be found among them in {@link #need}.
+     *
+     * @param x  the x-coordinate of the number
+     * @param y  the y-coordinate of the number
+     * @param cx the x-coordinate of the window centre, at most two tiles from the number
+     * @param cy the y-coordinate of the window centre, at most two tiles from the number
+     * @return the window mask of the unknown neighbours
+     */
+    private long unknownMask(final int x, final int y, final int cx, final int cy) {
+        long mask = 0;
+        int remaining = this.board.number(this.board.cell(x, y));
+        for (int ny = Math.max(y - 1, 0); ny <= Math.min(y + 1, this.height - 1); ny++) {
+            for (int nx = Math.max(x - 1, 0); nx <= Math.min(x + 1, this.width - 1); nx++) {
+                final byte k = this.known[this.board.cell(nx, ny)];
+                if (k == MINE) {
+                    remaining--;
+                } else if (k != SAFE) {
+                    mask |= 1L << ((ny - cy + RADIUS) * WINDOW + nx - cx + RADIUS);
+                }
+            }
+        }
+        this.need = remaining;
+        return mask;
+    }
+
+    /**
+     * Decides every tile of a window mask.
+     *
+     * @param mask the window mask
+     * @param cx   the x-coordinate of the window centre
+     * @param cy   the y-coordinate of the window centre
+     * @param what {@link #SAFE} or {@link #MINE}
+     */
+    private void decide(long mask, final int cx, final int cy, final byte what) {
+        while (mask != 0L) {
+            final int bit = Long.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+            this.mark(this.board.cell(cx + bit % WINDOW - RADIUS, cy + bit / WINDOW - RADIUS), what);
+        }
+    }
+
+    /**
+     * Records that an unknown tile is safe or a mine, and queues the numbers around it.
+     *
+     * @param cell the cell number
+     * @param what {@link #SAFE} or {@link #MINE}
+     */
+    private void mark(final int cell, final byte what) {
+        if (this.known[cell] != UNKNOWN) {
+            return;
+        }
+        this.known[cell] = what;
+        this.unknown--;
+        if (what == MINE) {
+            this.knownMines++;
+            this.mines.add(cell);
+        } else {
+            this.safe.add(cell);
+        }
+        this.enqueueAround(cell);
+        this.changed = true;
+    }
+
+    /**
+     * Applies the global mine count rule. Numbers of the frontier whose unknown neighbours do not overlap
+     * are picked greedily, those needing the most mines first, so the outcome does not depend on the order
+     * in which tiles were revealed. Together they hold exactly the sum of their remaining mines, which leaves an
+     * exact count for all other unknown tiles.
+     *
+     * @return {@code true} if any tile was decided
+     */
+    private boolean globalPass() {
+        this.changed = false;
+        int kept = 0;
+        if (this.order.length < this.frontier.size()) {
+            this.order = new long[this.frontier.size() * 2];
+        }
+        for (int i = 0; i < this.frontier.size(); i++) {
+            final int cell = this.frontier.get(i);
+            final int x = cell % this.width;
+            final int y = cell / this.width;
+            if (this.unknownMask(x, y, x, y) == 0L) {
+                this.inFrontier[cell >>> 6] &= ~(1L << cell);
+                continue;
+            }
+            this.order[kept] = (long) (8 - this.need) << 32 | cell;
+            this.frontier.array()[kept++] = cell;
+        }
+        this.frontier.truncate(kept);
+        Arrays.sort(this.order, 0, kept);
+        int packedMines = 0;
+        for (int i = 0; i < kept; i++) {
+            final int cell = (int) this.order[i];
+            final int x = cell % this.width;
+            final int y = cell / this.width;
+            final long mask = this.unknownMask(x, y, x, y);
+            if (this.isPackable(mask, x, y)) {
+                packedMines += this.need;
+                this.setPacked(mask, x, y);
+            }
+        }
+        final int rest = this.unknown - this.packed.size();
+        final int restMines = this.engine.mines() - this.knownMines - packedMines;
+        final boolean decided = rest > 0 && (restMines == 0 || restMines == rest);
+        if (decided) {
+            final byte what = restMines == 0 ? SAFE : MINE;
+            for (int cell = 0; cell < this.known.length; cell++) {
+                if (this.known[cell] == UNKNOWN) {
+                    this.mark(cell, what);
+                }
+            }
+        }
+        for (int i = 0; i < this.packed.size(); i++) {
+            this.known[this.packed.get(i)] = UNKNOWN;
+        }
+        this.packed.clear();
+        return decided;
+    }
+
+    /**
+     * Checks that none of the tiles of a window mask is taken by an earlier number of the global pass.
+     *
+     * @param mask the window mask of unknown tiles
+     * @param cx   the x-coordinate of the window centre
+     * @param cy   the y-coordinate of the window centre
+     * @return {@code true} if all the tiles are free
+     */
+    private boolean isPackable(long mask, final int cx, final int cy) {
+        for (; mask != 0L; mask &= mask - 1) {
+            final int bit = Long.numberOfTrailingZeros(mask);
+            if (this.known[this.board.cell(cx + bit % WINDOW - RADIUS, cy + bit / WINDOW - RADIUS)] != UNKNOWN) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Marks the tiles of a window mask as taken for the rest of the global pass.
+     *
+     * @param mask the window mask of unknown tiles
+     * @param cx   the x-coordinate of the window centre
+     * @param cy   the y-coordinate of the window centre
+     */
+    private void setPacked(long mask, final int cx, final int cy) {
+        for (; mask != 0L; mask &= mask - 1) {
+            final int bit = Long.numberOfTrailingZeros(mask);
+            final int cell = this.board.cell(cx + bit % WINDOW - RADIUS, cy + bit / WINDOW - RADIUS);
+            this.known[cell] = PACKED;
+            this.packed.add(cell);
+        }
+    }
+
+    /**
+     * Drops proven safe tiles that have since been revealed.
+     */
+    private void pruneSafe() {
+        int kept = 0;
+        final int[] cells = this.safe.array();
+        for (int i = 0; i < this.safe.size(); i++) {
+            if (!this.board.isRevealed(cells[i])) {
+                cells[kept++] = cells[i];
+            }
+        }
+        this.safe.truncate(kept);
+    }
+
+    private boolean isNumber(final int cell) {
+        return this.board.isRevealed(cell) && this.board.number(cell) > 0;
+    }
+
+    private void enqueue(final int cell) {
+        if (this.isNumber(cell) && (this.queued[cell >>> 6] & (1L << cell)) == 0) {
+            this.queued[cell >>> 6] |= 1L << cell;
+            this.queue.add(cell);
+        }
+    }
+
+    private void enqueueAround(final int cell) {
+        final int x = cell % this.width;
+        final int y = cell / this.width;
+        for (int ny = Math.max(y - 1, 0); ny <= Math.min(y + 1, this.height - 1); ny++) {
+            for (int nx = Math.max(x - 1, 0); nx <= Math.min(x + 1, this.width - 1); nx++) {
+                this.enqueue(this.board.cell(nx, ny));
+            }
+        }
+    }
+
+    /**
+     * Returns the unrevealed tiles proven safe by the last call to {@link #solve()}.
+     *
+     * @return the cell numbers of the safe tiles
+     */
+    public int[] safeCells() {
+        return Arrays.copyOf(this.safe.array(), this.safe.size());
+    }
+
+    /**
+     * Returns the tiles proven to be mines by the last call to {@link #solve()}.
+     *
+     * @return the cell numbers of the mines
+     */
+    public int[] mineCells() {
+        return Arrays.copyOf(this.mines.array(), this.mines.size());
+    }
+
+    /**
+     * Checks if a tile was proven safe, or has been revealed, as of the last call to {@link #solve()}.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     * @return {@code true} if the tile is safe
+     */
+    public boolean isSafe(final int x, final int y) {
+        return this.isDecided(x, y, SAFE);
+    }
+
+    /**
+     * Checks if a tile was proven to be a mine as of the last call to {@link #solve()}.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     * @return {@code true} if the tile is a mine
+     */
+    public boolean isMine(final int x, final int y) {
+        return this.isDecided(x, y, MINE);
+    }
+
+    private boolean isDecided(final int x, final int y, final byte what) {
+        return this.known != null && this.generation == this.engine.generation() && x >= 0 && y >= 0 &&
+                x < this.width && y < this.height && this.known[y * this.width + x] == what;
+    }
+
+    /**
+     * Returns the engine the solver follows.
+     *
+     * @return the engine
+     */
+    MineEngine engine() {
+        return this.engine;
+    }
+
+    /**
+     * Returns the board the solver state belongs to.
+     *
+     * @return the board, or {@code null} before the first call to {@link #solve()}
+     */
+    MineBoard board() {
+        return this.board;
+    }
+
+    /**
+     * Checks if a tile is neither revealed nor decided.
+     *
+     * @param cell the cell number
+     * @return {@code true} if nothing is known about the tile
+     */
+    boolean isUnknown(final int cell) {
+        return this.known[cell] == UNKNOWN;
+    }
+
+    /**
+     * Returns the number of tiles that are neither revealed nor decided.
+     *
+     * @return the number of unknown tiles
+     */
+    int unknownCount() {
+        return this.unknown;
+    }
+
+    /**
+     * Returns the number of tiles proven to be mines.
+     *
+     * @return the number of known mines
+     */
+    int knownMines() {
+        return this.knownMines;
+    }
+
+    /**
+     * Returns the revealed numbers that had unknown neighbours when last considered. Some of them may
+     * have none left.
+     *
+     * @return the frontier numbers, not to be modified
+     */
+    IntList frontier() {
+        return this.frontier;
+    }
+
+    /**
+     * Returns the number of mines a revealed number still needs among its unknown neighbours.
+     *
+     * @param cell the cell number of a revealed number
+     * @return the number minus its known adjacent mines
+     */
+    int remaining(final int cell) {
+        final int x = cell % this.width;
+        this.unknownMask(x, cell / this.width, x, cell / this.width);
+        return this.need;
+    }
+
+    /**
+     * Plays the game as far as it can be played without guessing: reveals every safe tile the solver
+     * finds, until no safe tile is left or the game is over.
+     *
+     * @return the number of tiles the solver revealed
+     */
+    public int play() {
+        int played = 0;
+        while (this.solve()) {
+            for (int i = 0; i < this.safe.size(); i++) {
+                final int cell = this.safe.get(i);
+                if (!this.board.isRevealed(cell)) {
+                    this.engine.reveal(cell % this.width, cell / this.width);
+                    played++;
+                }
+            }
+            this.safe.clear();
+        }
+        return played;
+    }
+}
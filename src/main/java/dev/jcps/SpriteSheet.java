@@ -0,0 +1,117 @@
+package dev.jcps;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.RasterFormatException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * A packed skin: one PNG image holding every tile, face and counter digit, plus an index of the sprite
+ * rectangles inside it.
+ * <p>
+ * A sheet named {@code images/sprites} consists of {@code images/sprites.png} and
+ * {@code images/sprites.properties}. Each index entry maps a key such as {@code tile.9}, {@code face.0} or
+ * {@code time.10} to {@code x,y,width,height}. The keys are {@code tile.N} for the {@link MineTile}
+ * display indices, {@code face.N} for the {@link JMine.Smile} faces and {@code time.N} for the counter
+ * digits. A custom skin is a single PNG laid out like the built-in one; its index may be left out, in
+ * which case the built-in index is used.
+ * </p>
+ *
+ * @since 1.1
+ */
+final class SpriteSheet {
+    /**
+     * Name of the built-in sheet on the classpath.
+     */
+    static final String DEFAULT_NAME = "images/sprites";
+
+    private final BufferedImage image;
+    private final Properties index;
+
+    private SpriteSheet(final BufferedImage image, final Properties index) {
+        this.image = image;
+        this.index = index;
+    }
+
+    /**
+     * Loads a sheet. The name is first looked up as a file, then on the classpath.
+     *
+     * @param name the name of the sheet, without the {@code .png} extension
+     * @return the sheet
+     * @throws IOException if the image or the index cannot be read
+     */
+    static @NotNull SpriteSheet load(@NotNull final String name) throws IOException {
+        final BufferedImage image;
+        try (InputStream in = open(name + ".png")) {
+            if (in == null) {
+                throw new IOException("Sprite sheet not found: " + name + ".png");
+            }
+            image = ImageIO.read(in);
+        }
+        if (image == null) {
+            throw new IOException("Not a readable image: " + name + ".png");
+        }
+        final InputStream own = open(name + ".properties");
+        final Properties index = new Properties();
+        try (InputStream in = own != null ? own : open(DEFAULT_NAME + ".properties")) {
+            if (in == null) {
+                throw new IOException("Sprite index not found: " + name + ".properties");
+            }
+            index.load(in);
+        }
+        return new SpriteSheet(image, index);
+    }
+
+    private static @Nullable InputStream open(final String path) throws IOException {
+        final File file = new File(path);
+        if (file.isFile()) {
+            return new FileInputStream(file);
+        }
+        return SpriteSheet.class.getClassLoader().getResourceAsStream(path);
+    }
+
+    /**
+     * Returns a sprite.
+     *
+     * @param key the index key of the sprite, for example {@code tile.9}
+     * @return the sprite, sharing its pixels with the sheet
+     * @throws IOException if the key is missing or its rectangle is malformed
+     */
+    @NotNull BufferedImage sprite(final String key) throws IOException {
+        final String value = this.index.getProperty(key);
+        if (value == null) {
+            throw new IOException("Missing sprite: " + key);
+        }
+        final String[] parts = value.split(",");
+        try {
+            if (parts.length != 4) {
+                throw new IllegalArgumentException(value);
+            }
+            return this.image.getSubimage(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()),
+                    Integer.parseInt(parts[2].trim()), Integer.parseInt(parts[3].trim()));
+        } catch (final IllegalArgumentException | RasterFormatException e) {
+            throw new IOException("Bad sprite rectangle for " + key + ": " + value, e);
+        }
+    }
+
+    /**
+     * Returns a numbered series of sprites.
+     *
+     * @param prefix the key prefix, for example {@code tile}
+     * @param into   the array to fill with the sprites {@code prefix.0} to {@code prefix.(length - 1)}
+     * @throws IOException if a sprite is missing or malformed
+     */
+    void sprites(final String prefix, final Image[] into) throws IOException {
+        for (int i = 0; i < into.length; i++) {
+            into[i] = this.sprite(prefix + "." + i);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package dev.jcps;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.ImageObserver;
+
+/**
+ * A sprite sheet holding every tile image side by side in one image compatible with the screen.
+ * <p>
+ * The tiles are rendered once over the tile background color, so drawing a tile is a single
+ * {@link Graphics#drawImage(Image, int, int, int, int, int, int, int, int, ImageObserver)} call with no
+ * background fill, no image size queries and no allocation.
+ * </p>
+ *
+ * @since 1.1
+ */
+final class TileAtlas {
+    /**
+     * Color drawn behind transparent parts of the tile images.
+     */
+    static final Color TILE_BACKGROUND = new Color(128, 128, 128);
+
+    /**
+     * The sprite sheet, one tile after another from left to right.
+     */
+    private final BufferedImage sheet;
+    /**
+     * Width of one tile in the sheet.
+     */
+    private final int tileWidth;
+    /**
+     * Height of one tile in the sheet.
+     */
+    private final int tileHeight;
+
+    /**
+     * Renders the given images into a new sprite sheet. Missing images leave their slot filled with the
+     * background color.
+     *
+     * @param images     the tile images, indexed by display index
+     * @param tileWidth  the width of one tile
+     * @param tileHeight the height of one tile
+     * @param observer   the observer passed to the image drawing calls
+     */
+    TileAtlas(final Image[] images, final int tileWidth, final int tileHeight, final ImageObserver observer) {
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.sheet = createImage(tileWidth * images.length, tileHeight, Transparency.OPAQUE);
+        final Graphics2D g = this.sheet.createGraphics();
+        try {
+            g.setColor(TILE_BACKGROUND);
+            g.fillRect(0, 0, this.sheet.getWidth(), this.sheet.getHeight());
+            for (int i = 0; i < images.length; i++) {
+                if (images[i] != null) {
+                    g.drawImage(images[i], i * tileWidth, 0, tileWidth, tileHeight, observer);
+                }
+            }
+        } finally {
+            g.dispose();
+        }
+    }
+
+    /**
+     * Creates an image in the format of the default screen, or a plain RGB image when running without a
+     * display.
+     *
+     * @param width        the width of the image
+     * @param height       the height of the image
+     * @param transparency one of the {@link Transparency} constants
+     * @return the new image
+     */
+    static BufferedImage createImage(final int width, final int height, final int transparency) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                    .getDefaultConfiguration().createCompatibleImage(width, height, transparency);
+        }
+        return new BufferedImage(width, height, transparency == Transparency.OPAQUE
+                ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+    }
+
+    /**
+     * Draws a tile.
+     *
+     * @param graphics the graphics context to draw into
+     * @param index    the display index of the tile
+     * @param x        the x-coordinate of the tile's top-left corner
+     * @param y        the y-coordinate of the tile's top-left corner
+     */
+    void draw(final Graphics graphics, final int index, final int x, final int y) {
+        final int sx = index * this.tileWidth;
+        graphics.drawImage(this.sheet, x, y, x + this.tileWidth, y + this.tileHeight,
+                sx, 0, sx + this.tileWidth, this.tileHeight, null);
+    }
+}
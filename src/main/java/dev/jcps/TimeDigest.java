@@ -0,0 +1,264 @@
+package dev.jcps;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A compact sketch of a distribution of times, answering percentile queries within a small error.
+ * <p>
+ * This is a merging t-digest: values are buffered, sorted and merged into a few hundred weighted
+ * centroids. Centroids near the median may hold many values while those near the tails stay small, so
+ * extreme percentiles remain accurate. The size of the sketch depends on the compression only, never on
+ * the number of values added.
+ * </p>
+ *
+ * @since 1.1
+ */
+final class TimeDigest {
+    /**
+     * Controls the number of centroids kept, about twice this many at most.
+     */
+    static final double COMPRESSION = 100.0;
+    /**
+     * The number of values buffered before merging.
+     */
+    private static final int BUFFER = 256;
+
+    /**
+     * Centroid means, ascending.
+     */
+    private double[] means;
+    /**
+     * Centroid weights.
+     */
+    private long[] weights;
+    /**
+     * The number of centroids.
+     */
+    private int size;
+    /**
+     * Values not yet merged.
+     */
+    private final double[] buffer;
+    /**
+     * The number of buffered values.
+     */
+    private int buffered;
+    /**
+     * The number of values in the centroids.
+     */
+    private long merged;
+    /**
+     * The smallest value added.
+     */
+    private double min;
+    /**
+     * The largest value added.
+     */
+    private double max;
+
+    /**
+     * Constructs an empty digest.
+     */
+    TimeDigest() {
+        final int capacity = (int) (2 * COMPRESSION) + 8;
+        this.means = new double[capacity];
+        this.weights = new long[capacity];
+        this.buffer = new double[BUFFER];
+        this.min = Double.POSITIVE_INFINITY;
+        this.max = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value the value
+     */
+    void add(final double value) {
+        this.buffer[this.buffered++] = value;
+        this.min = Math.min(this.min, value);
+        this.max = Math.max(this.max, value);
+        if (this.buffered == BUFFER) {
+            this.merge();
+        }
+    }
+
+    /**
+     * Returns the number of values added.
+     *
+     * @return the count
+     */
+    long count() {
+        return this.merged + this.buffered;
+    }
+
+    /**
+     * Estimates a percentile.
+     *
+     * @param q the fraction of values below the result, from 0 to 1
+     * @return the estimate, or {@link Double#NaN} if no value was added
+     */
+    double quantile(final double q) {
+        this.merge();
+        if (this.size == 0) {
+            return Double.NaN;
+        }
+        if (this.size == 1 || q <= 0.0) {
+            return q <= 0.0 ? this.min : this.means[0];
+        }
+        if (q >= 1.0) {
+            return this.max;
+        }
+        final double rank = q * this.merged;
+        double seen = this.weights[0] / 2.0;
+        if (rank < seen) {
+            return this.min + (this.means[0] - this.min) * (rank / seen);
+        }
+        for (int i = 1; i < this.size; i++) {
+            final double step = (this.weights[i - 1] + this.weights[i]) / 2.0;
+            if (rank < seen + step) {
+                final double t = (rank - seen) / step;
+                return this.means[i - 1] + (this.means[i] - this.means[i - 1]) * t;
+            }
+            seen += step;
+        }
+        final double last = this.weights[this.size - 1] / 2.0;
+        final double t = Math.min(1.0, (rank - seen) / last);
+        return this.means[this.size - 1] + (this.max - this.means[this.size - 1]) * t;
+    }
+
+    /**
+     * Merges the buffered values into the centroids.
+     */
+    private void merge() {
+        if (this.buffered == 0) {
+            return;
+        }
+        Arrays.sort(this.buffer, 0, this.buffered);
+        final int n = this.size + this.buffered;
+        final double[] inMeans = new double[n];
+        final long[] inWeights = new long[n];
+        int a = 0;
+        int b = 0;
+        for (int i = 0; i < n; i++) {
+            if (b >= this.buffered || a < this.size && this.means[a] <= this.buffer[b]) {
+                inMeans[i] = this.means[a];
+                inWeights[i] = this.weights[a++];
+            } else {
+                inMeans[i] = this.buffer[b++];
+                inWeights[i] = 1;
+            }
+        }
+        final long total = this.merged + this.buffered;
+        this.size = 0;
+        double sum = inMeans[0] * inWeights[0];
+        long weight = inWeights[0];
+        long before = 0;
+        double limit = total * limit(0.0);
+        for (int i = 1; i < n; i++) {
+            if (before + weight + inWeights[i] <= limit) {
+                sum += inMeans[i] * inWeights[i];
+                weight += inWeights[i];
+            } else {
+                this.push(sum / weight, weight);
+                before += weight;
+                limit = total * limit((double) before / total);
+                sum = inMeans[i] * inWeights[i];
+                weight = inWeights[i];
+            }
+        }
+        this.push(sum / weight, weight);
+        this.merged = total;
+        this.buffered = 0;
+    }
+
+    /**
+     * Returns the largest fraction of all values a centroid starting at {@code q} may end at: one step
+     * of the arcsine scale function.
+     */
+    private static double limit(final double q) {
+        final double k = COMPRESSION / (2 * Math.PI) * Math.asin(2 * q - 1) + 1;
+        if (k >= COMPRESSION / 4) {
+            return 1.0;
+        }
+        return (Math.sin(k * 2 * Math.PI / COMPRESSION) + 1) / 2;
+    }
+
+    private void push(final double mean, final long weight) {
+        if (this.size == this.means.length) {
+            this.means = Arrays.copyOf(this.means, this.size * 2);
+            this.weights = Arrays.copyOf(this.weights, this.size * 2);
+        }
+        this.means[this.size] = mean;
+        this.weights[this.size++] = weight;
+    }
+
+    /**
+     * Writes the digest, including the values not yet merged.
+     *
+     * @param out the output
+     * @throws IOException if writing fails
+     */
+    void write(final DataOutput out) throws IOException {
+        out.writeInt(this.size);
+        out.writeDouble(this.min);
+        out.writeDouble(this.max);
+        for (int i = 0; i < this.size; i++) {
+            out.writeDouble(this.means[i]);
+            out.writeLong(this.weights[i]);
+        }
+        out.writeInt(this.buffered);
+        for (int i = 0; i < this.buffered; i++) {
+            out.writeDouble(this.buffer[i]);
+        }
+    }
+
+    /**
+     * Reads a digest written by {@link #write(DataOutput)}.
+     *
+     * @param in the input
+     * @return the digest
+     * @throws IOException if reading fails
+     */
+    static TimeDigest read(final DataInput in) throws IOException {
+        final TimeDigest digest = new TimeDigest();
+        final int size = in.readInt();
+        digest.min = in.readDouble();
+        digest.max = in.readDouble();
+        for (int i = 0; i < size; i++) {
+            final double mean = in.readDouble();
+            final long weight = in.readLong();
+            digest.push(mean, weight);
+            digest.merged += weight;
+        }
+        digest.buffered = in.readInt();
+        if (digest.buffered < 0 || digest.buffered >= BUFFER) {
+            throw new IOException("Bad digest buffer length " + digest.buffered);
+        }
+        for (int i = 0; i < digest.buffered; i++) {
+            digest.buffer[i] = in.readDouble();
+        }
+        return digest;
+    }
+
+    /**
+     * Returns an independent copy. Values still buffered are copied as they are, so the copy evolves
+     * exactly like the original.
+     *
+     * @return the copy
+     */
+    TimeDigest copy() {
+        final TimeDigest copy = new TimeDigest();
+        System.arraycopy(this.buffer, 0, copy.buffer, 0, this.buffered);
+        copy.buffered = this.buffered;
+        copy.means = this.means.clone();
+        copy.weights = this.weights.clone();
+        copy.size = this.size;
+        copy.merged = this.merged;
+        copy.min = this.min;
+        copy.max = this.max;
+        return copy;
+    }
+}
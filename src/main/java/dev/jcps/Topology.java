@@ -0,0 +1,102 @@
+package dev.jcps;
+
+import java.util.Arrays;
+
+/**
+ * The neighbours of every cell of a board of one size, as lists of cell number offsets.
+ * <p>
+ * Cells are grouped by where they lie: inside the board, on one of its edges or in a corner, and for boards
+ * one tile wide or high, on both opposite edges at once. All cells of a group have the same neighbours
+ * relative to themselves, so one list of offsets per group serves the whole board. The lists are stored
+ * back to back in {@link #offsets}, the list of group {@code k} running from {@code start[k]} to
+ * {@code start[k + 1]}; edge groups simply have shorter lists. Visiting the neighbours of a cell is then a
+ * scan over its list, without bounds checks, and the tables take the same few bytes for any board size.
+ * </p>
+ * <pre>{@code
+ * final int k = topology.kind(cell);
+ * for (int i = topology.start[k]; i < topology.start[k + 1]; i++) {
+ *     final int n = cell + topology.offsets[i];
+ * }
+ * }</pre>
+ *
+ * @since 1.1
+ */
+final class Topology {
+    /**
+     * Bit of a column or row group set on the low edge, the first column or row.
+     */
+    private static final int LOW = 1;
+    /**
+     * Bit of a column or row group set on the high edge, the last column or row.
+     */
+    private static final int HIGH = 2;
+    /**
+     * The number of groups: four column groups times four row groups.
+     */
+    private static final int KINDS = 16;
+
+    /**
+     * Width of the board in tiles.
+     */
+    final int width;
+    /**
+     * Height of the board in tiles.
+     */
+    final int height;
+    /**
+     * Where the offset list of each group starts in {@link #offsets}, followed by the end of the last one.
+     */
+    final int[] start;
+    /**
+     * The offsets of the neighbours of each group, the cell itself excluded, in row order.
+     */
+    final int[] offsets;
+
+    /**
+     * Computes the neighbour tables of a board size.
+     *
+     * @param width  the width of the board
+     * @param height the height of the board
+     */
+    Topology(final int width, final int height) {
+        this.width = width;
+        this.height = height;
+        this.start = new int[KINDS + 1];
+        final int[] list = new int[KINDS * 8];
+        int n = 0;
+        for (int k = 0; k < KINDS; k++) {
+            this.start[k] = n;
+            final int column = k & 3;
+            final int row = k >>> 2;
+            for (int dy = -1; dy <= 1; dy++) {
+                if (dy < 0 && (row & LOW) != 0 || dy > 0 && (row & HIGH) != 0) {
+                    continue;
+                }
+                for (int dx = -1; dx <= 1; dx++) {
+                    if (dx == 0 && dy == 0 || dx < 0 && (column & LOW) != 0 || dx > 0 && (column & HIGH) != 0) {
+                        continue;
+                    }
+                    list[n++] = dy * width + dx;
+                }
+            }
+        }
+        this.start[KINDS] = n;
+        this.offsets = Arrays.copyOf(list, n);
+    }
+
+    /**
+     * Returns the group of a cell, selecting its list of neighbour offsets.
+     *
+     * @param cell the cell number
+     * @return the group, from 0 to 15
+     */
+    int kind(final int cell) {
+        final int y = cell / this.width;
+        final int x = cell - y * this.width;
+        return group(x, this.width) | group(y, this.height) << 2;
+    }
+
+    private static int group(final int i, final int size) {
+        return (i == 0 ? LOW : 0) | (i == size - 1 ? HIGH : 0);
+    }
+}
@@ -0,0 +1,94 @@
+package dev.jcps;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Places mines uniformly at random, so that every set of mine cells is equally likely.
+ * <p>
+ * This uses Floyd's variant of a partial Fisher-Yates shuffle: one random number is drawn per mine,
+ * whatever the size of the board. Excluded cells are skipped by sampling from the remaining cells and
+ * mapping the result past them.
+ * </p>
+ *
+ * @since 1.1
+ */
+public class UniformLayoutGenerator implements MineLayoutGenerator {
+    /**
+     * Chooses the mine cells of a board.
+     *
+     * @param width    the width of the board
+     * @param height   the height of the board
+     * @param mines    the number of mines to place
+     * @param excluded cells that must not hold a mine, sorted in ascending order without duplicates
+     * @param random   the source of randomness
+     * @return the distinct cell numbers of the mines
+     */
+    @Override
+    public int[] generate(final int width, final int height, final int mines, final int[] excluded,
+                          final RandomGenerator random) {
+        final int n = width * height - excluded.length;
+        if (mines < 0 || mines > n) {
+            throw new IllegalArgumentException("Cannot place " + mines + " mines on " + n + " free cells");
+        }
+        final int[] layout = new int[mines];
+        final long[] taken = new long[(n + 63) >>> 6];
+        int placed = 0;
+        for (int j = n - mines; j < n; j++) {
+            int t = random.nextInt(j + 1);
+            if ((taken[t >>> 6] & (1L << t)) != 0) {
+                t = j;
+            }
+            taken[t >>> 6] |= 1L << t;
+            layout[placed++] = skipExcluded(t, excluded);
+        }
+        return layout;
+    }
+
+    /**
+     * Chooses the mine cells of a board as a bit set. Draws the same random numbers as
+     * {@link #generate(int, int, int, int[], RandomGenerator)} and so places the same mines, but needs only
+     * one bit per cell, however many mines there are.
+     *
+     * @param width    the width of the board
+     * @param height   the height of the board
+     * @param mines    the number of mines to place
+     * @param excluded cells that must not hold a mine, sorted in ascending order without duplicates
+     * @param random   the source of randomness
+     * @return the mine cells, bit {@code cell & 63} of word {@code cell >>> 6} being set for a mine
+     */
+    @Override
+    public long[] generateBits(final int width, final int height, final int mines, final int[] excluded,
+                               final RandomGenerator random) {
+        final int n = width * height - excluded.length;
+        if (mines < 0 || mines > n) {
+            throw new IllegalArgumentException("Cannot place " + mines + " mines on " + n + " free cells");
+        }
+        // indexes map to cells in order, so a cell is taken exactly when its index would be
+        final long[] bits = new long[(width * height + 63) >>> 6];
+        for (int j = n - mines; j < n; j++) {
+            int cell = skipExcluded(random.nextInt(j + 1), excluded);
+            if ((bits[cell >>> 6] & (1L << cell)) != 0) {
+                cell = skipExcluded(j, excluded);
+            }
+            bits[cell >>> 6] |= 1L << cell;
+        }
+        return bits;
+    }
+
+    /**
+     * Maps an index among the free cells to a cell number on the board.
+     *
+     * @param index    the index among the cells that are not excluded
+     * @param excluded the excluded cells, sorted in ascending order
+     * @return the cell number
+     */
+    private static int skipExcluded(int index, final int[] excluded) {
+        for (final int cell : excluded) {
+            if (index < cell) {
+                break;
+            }
+            index++;
+        }
+        return index;
+    }
+}
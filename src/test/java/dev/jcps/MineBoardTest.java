@@ -0,0 +1,34 @@
+package dev.jcps;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the adjacency counts computed 64 tiles at a time against counting the neighbours of each tile.
+ */
+class MineBoardTest {
+    @Test
+    void computeNumbersMatchesNeighbourCount() {
+        final SplittableRandom random = new SplittableRandom(1);
+        final int[][] sizes = {{1, 1}, {1, 9}, {9, 1}, {8, 8}, {63, 5}, {64, 7}, {65, 6}, {130, 40}};
+        for (final int[] size : sizes) {
+            for (final int percent : new int[]{0, 15, 50, 90}) {
+                final MineBoard board = new MineBoard(size[0], size[1]);
+                for (int cell = 0; cell < board.size(); cell++) {
+                    if (random.nextInt(100) < percent) {
+                        board.setCount(cell, MineBoard.MINE_COUNT);
+                    }
+                }
+                board.computeNumbers();
+                for (int cell = 0; cell < board.size(); cell++) {
+                    if (!board.isMine(cell)) {
+                        assertEquals(board.countMines(cell), board.count(cell));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package dev.jcps;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that {@link Replay#read(byte[])} rejects boards the game does not allow before sizing anything from
+ * them.
+ */
+class ReplayTest {
+    @Test
+    void readsRecordedGame() throws IOException {
+        final Replay replay = Replay.read(record(new Game(30, 24, 99)));
+        assertEquals(30, replay.game().width());
+        assertEquals(24, replay.game().height());
+        assertEquals(99, replay.game().mines());
+        assertEquals(2, replay.events());
+    }
+
+    @Test
+    void rejectsBoardOutsideLimits() {
+        assertThrows(IOException.class, () -> Replay.read(record(new Game(JMine.MAX_X * 4, JMine.MAX_Y * 4, 10))));
+        assertThrows(IOException.class, () -> Replay.read(record(new Game(JMine.MIN_X - 1, JMine.MIN_Y, 10))));
+    }
+
+    @Test
+    void rejectsBoardFullOfMines() {
+        assertThrows(IOException.class, () -> Replay.read(record(new Game(9, 9, 81))));
+    }
+
+    private static byte[] record(final Game game) {
+        final ReplayRecorder recorder = new ReplayRecorder();
+        recorder.start(game, false);
+        recorder.record(Replay.PRESS, 0);
+        recorder.record(Replay.RELEASE, 0);
+        recorder.started();
+        recorder.finish(MineEngine.LOST, 1L, MineEngine.DEFAULT_RANDOM);
+        return recorder.last();
+    }
+}
@@ -0,0 +1,152 @@
+package dev.jcps;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Records games the way the window plays them and checks that {@link ReplayVerifier} plays them back to the
+ * same end.
+ */
+class ReplayVerifierTest {
+    private final MineEngine engine = new MineEngine();
+    private final ReplayRecorder recorder = new ReplayRecorder();
+
+    ReplayVerifierTest() {
+        this.engine.setListener(new MineEngine.Listener() {
+            @Override
+            public void gameStarted() {
+                ReplayVerifierTest.this.recorder.started();
+            }
+
+            @Override
+            public void gameWon() {
+                ReplayVerifierTest.this.finish(MineEngine.WON);
+            }
+
+            @Override
+            public void gameLost() {
+                ReplayVerifierTest.this.finish(MineEngine.LOST);
+            }
+        });
+    }
+
+    @Test
+    void chordOnPressedTileRoundTrips() throws Exception {
+        final Game game = JMine.EXPERT;
+        this.start(game, 1L);
+        // a hidden tile without adjacent mines shows as an opened zero while pressed, so the chord opens it
+        this.chord(6, 0);
+        assertTrue(this.engine.hidden() < game.width() * game.height(), "the chord should open tiles");
+        this.winByClicks(game);
+        assertVerified(MineEngine.WON);
+    }
+
+    @Test
+    void failedChordRoundTrips() throws Exception {
+        final Game game = JMine.EXPERT;
+        this.start(game, 2L);
+        final MineBoard board = this.engine.board();
+        int cell = 0;
+        while (board.isMine(cell) || board.number(cell) == 0) {
+            cell++;
+        }
+        this.click(cell % game.width(), cell / game.width());
+        // a number without its flags cannot chord, and its pressed neighbours are lifted again
+        this.chord(cell % game.width(), cell / game.width());
+        this.winByClicks(game);
+        assertVerified(MineEngine.WON);
+    }
+
+    @Test
+    void longRunOfPressesVerifiesQuickly() {
+        final Game game = JMine.EXPERT;
+        this.start(game, 1L);
+        // the mouse held down and moved about: each press lifts the one before, and the last becomes a chord
+        for (int i = 0; i < 200_000; i++) {
+            this.recorder.record(Replay.PRESS, i % game.width());
+        }
+        this.chord(6, 0);
+        this.winByClicks(game);
+        assertTimeout(Duration.ofSeconds(5), () -> assertVerified(MineEngine.WON));
+    }
+
+    @Test
+    void badReplayDoesNotStopBatch() {
+        this.start(JMine.EXPERT, 1L);
+        this.chord(6, 0);
+        this.winByClicks(JMine.EXPERT);
+        final byte[] good = this.recorder.last();
+        final byte[] bad = Arrays.copyOf(good, 12);
+
+        final ReplayVerifier.Batch batch = ReplayVerifier.verifyAll(List.of(good, bad, good), 2);
+        assertEquals(3, batch.verdicts().size());
+        assertEquals(2, batch.valid());
+        assertFalse(batch.verdicts().get(1).valid());
+        assertNotNull(batch.verdicts().get(1).reason(), "the invalid replay should say why");
+    }
+
+    private void assertVerified(final int result) throws Exception {
+        final byte[] data = this.recorder.last();
+        assertNotNull(data, "the game should have been recorded");
+        final ReplayVerifier.Verdict verdict = new ReplayVerifier().verify(data);
+        assertTrue(verdict.valid(), verdict.reason());
+        assertEquals(result, verdict.result());
+        assertEquals(Replay.read(data).time(), verdict.time());
+    }
+
+    private void start(final Game game, final long seed) {
+        assertTrue(this.engine.newGame(game, seed));
+        this.recorder.start(game, false);
+    }
+
+    private void finish(final int result) {
+        this.recorder.finish(result, this.engine.seed(), this.engine.randomAlgorithm());
+    }
+
+    /**
+     * Clicks every hidden safe tile, as {@link JMine#tilePress(int, int)} and {@link JMine#tileRelease(int, int)}
+     * do for the left button.
+     */
+    private void winByClicks(final Game game) {
+        final MineBoard board = this.engine.board();
+        for (int cell = 0; cell < board.size() && this.engine.state() <= MineEngine.PLAYING; cell++) {
+            if (!board.isMine(cell) && !board.isRevealed(cell)) {
+                this.click(cell % game.width(), cell / game.width());
+            }
+        }
+        assertEquals(MineEngine.WON, this.engine.state());
+    }
+
+    private void click(final int x, final int y) {
+        final int cell = y * this.engine.width() + x;
+        this.recorder.record(Replay.PRESS, cell);
+        this.engine.touch(x, y);
+        this.recorder.record(Replay.RELEASE, cell);
+        this.engine.reveal(x, y);
+    }
+
+    /**
+     * Chords a tile as {@link JMine#tilePress(int, int)} and {@link JMine#tileRelease(int, int)} do for the
+     * middle button: the square is pressed down before the chord is checked.
+     */
+    private void chord(final int x, final int y) {
+        final int cell = y * this.engine.width() + x;
+        this.recorder.record(Replay.PRESS, cell);
+        this.engine.squareDown(x, y);
+        this.recorder.record(Replay.CHORD, cell);
+        if (this.engine.canChord(x, y)) {
+            this.engine.squareReveal(x, y);
+        } else {
+            this.engine.squareUp(x, y);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package dev.jcps;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the bit set layouts used for huge boards hold the same mines as the listed layouts, so that a
+ * seed lays out the same board whichever way its mines are placed.
+ */
+class UniformLayoutGeneratorTest {
+    private static final RandomGeneratorFactory<RandomGenerator> RANDOM =
+            RandomGeneratorFactory.of(MineEngine.DEFAULT_RANDOM);
+
+    @Test
+    void bitsMatchList() {
+        final UniformLayoutGenerator generator = new UniformLayoutGenerator();
+        final int[][] excluded = {MineLayoutGenerator.NO_CELLS, {0}, {40, 41, 42, 70, 71, 72, 100, 101, 102}};
+        for (final int mines : new int[]{1, 10, 99, 200, 890}) {
+            for (final int[] cells : excluded) {
+                for (long seed = 0L; seed < 20L; seed++) {
+                    final long[] expected = new long[(30 * 30 + 63) >>> 6];
+                    for (final int cell : generator.generate(30, 30, mines, cells, RANDOM.create(seed))) {
+                        expected[cell >>> 6] |= 1L << cell;
+                    }
+                    assertArrayEquals(expected, generator.generateBits(30, 30, mines, cells, RANDOM.create(seed)));
+                }
+            }
+        }
+    }
+
+    @Test
+    void bitsPlaceSameBoard() {
+        final UniformLayoutGenerator generator = new UniformLayoutGenerator();
+        for (final int mines : new int[]{20, 600}) {
+            final MineBoard listed = new MineBoard(40, 30);
+            listed.placeMines(generator.generate(40, 30, mines, MineLayoutGenerator.NO_CELLS, RANDOM.create(7L)));
+            final MineBoard bits = new MineBoard(40, 30);
+            bits.placeMines(generator.generateBits(40, 30, mines, MineLayoutGenerator.NO_CELLS,
+                    RANDOM.create(7L)));
+            for (int cell = 0; cell < listed.size(); cell++) {
+                assertEquals(listed.count(cell), bits.count(cell));
+            }
+        }
+    }
+}